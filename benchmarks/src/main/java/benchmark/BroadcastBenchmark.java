@@ -0,0 +1,133 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryDataAccess;
+import handler.GameExecutor;
+import handler.OutboundQueues;
+import handler.WebSocketHandler;
+import model.AuthData;
+import model.GameData;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.openjdk.jmh.annotations.*;
+import serialization.Json;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A MAKE_MOVE through WebSocketHandler: decoding the frame, checking and
+ * storing the move, and fanning the result out to every session watching
+ * the game. Game tasks run on the calling thread and the sessions' writes
+ * complete at once, so this measures the server-side CPU cost only, not
+ * network writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadcastBenchmark {
+    private static final int GAME_ID = 1;
+
+    // sessions watching the game, the two players included
+    @Param({"2", "50", "500"})
+    private int watchers;
+
+    // whether watchers asked for MOVE_MADE deltas instead of a LOAD_GAME per move
+    @Param({"false", "true"})
+    private boolean moveUpdates;
+
+    private WebSocketHandler handler;
+    private Session white;
+    private Session black;
+    // the knights go out and come back, so the game can go on for as long as the benchmark runs
+    private String[] moves;
+    private int nextMove;
+    private long charsSent;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        // the handler logs every frame it receives, which would swamp the results
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        var dataAccess = new MemoryDataAccess();
+        dataAccess.createAuth(new AuthData("white", "white"));
+        dataAccess.createAuth(new AuthData("black", "black"));
+        dataAccess.createAuth(new AuthData("observer", "observer"));
+        dataAccess.createGame(new GameData(GAME_ID, "white", "black", "broadcast", new ChessGame()));
+        handler = new WebSocketHandler(dataAccess, new GameExecutor(Runnable::run),
+                new OutboundQueues(64, OutboundQueues.SlowConsumerPolicy.COALESCE));
+
+        white = join("white");
+        black = join("black");
+        for (int i = 2; i < watchers; i++) {
+            join("observer");
+        }
+        moves = new String[] {
+                makeMove("white", 1, 7, 3, 6),
+                makeMove("black", 8, 7, 6, 6),
+                makeMove("white", 3, 6, 1, 7),
+                makeMove("black", 6, 6, 8, 7),
+        };
+        nextMove = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.shutdown();
+        System.setOut(stdout);
+    }
+
+    private Session join(String authToken) {
+        Session session = newSession();
+        handler.onConnect(session);
+        handler.onMessage(session, Json.GSON.toJson(new UserGameCommand(
+                UserGameCommand.CommandType.CONNECT, authToken, GAME_ID, moveUpdates)));
+        return session;
+    }
+
+    private static String makeMove(String authToken, int fromRow, int fromCol, int toRow, int toCol) {
+        var move = new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+        return Json.GSON.toJson(new MakeMoveCommand(authToken, GAME_ID, move));
+    }
+
+    // a session whose writes complete at once
+    private Session newSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[] {RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString") && args.length == 2) {
+                        charsSent += ((String) args[0]).length();
+                        ((WriteCallback) args[1]).writeSuccess();
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(),
+                new Class<?>[] {Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    @Benchmark
+    public long makeMoveAndBroadcast() {
+        int move = nextMove;
+        nextMove = (move + 1) % moves.length;
+        handler.onMessage(move % 2 == 0 ? white : black, moves[move]);
+        return charsSent;
+    }
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation and game status checks, the engine work the server does
+ * for every move it validates
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+    @Param({"start", "middlegame", "endgame"})
+    private String position;
+
+    private ChessGame game;
+    private ChessGame checkmate;
+    private ChessGame stalemate;
+
+    @Setup
+    public void setUp() {
+        game = Positions.load(position);
+        checkmate = Positions.load("checkmate");
+        stalemate = Positions.load("stalemate");
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = game.getBoard().getPiece(square);
+            if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                blackhole.consume(game.validMoves(ChessPosition.ofSquare(square)));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmateMated() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemateStalemated() {
+        return stalemate.isInStalemate(ChessGame.TeamColor.BLACK);
+    }
+
+    @Benchmark
+    public long perftDepth3() {
+        return Perft.perft(game, 3);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import chess.ChessGame;
+import dataaccess.DataAccessException;
+import dataaccess.GameQuery;
+import dataaccess.MemoryDataAccess;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemoryDataAccess operations on the request paths: auth lookups, game
+ * reads and writes, and listing games
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataAccessBenchmark {
+    @Param({"100", "10000"})
+    private int games;
+
+    private MemoryDataAccess dataAccess;
+    private GameData game;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        dataAccess = new MemoryDataAccess();
+        dataAccess.createUser(new UserData("player", "password", "player@example.com"));
+        dataAccess.createAuth(new AuthData("token", "player"));
+        for (int id = 1; id <= games; id++) {
+            dataAccess.createGame(new GameData(id, "player", null, "game" + id, new ChessGame()));
+        }
+        game = dataAccess.getGame(1);
+    }
+
+    @Benchmark
+    public AuthData getAuth() throws DataAccessException {
+        return dataAccess.getAuth("token");
+    }
+
+    @Benchmark
+    public GameData getGame() throws DataAccessException {
+        return dataAccess.getGame(1);
+    }
+
+    @Benchmark
+    public void updateGame() throws DataAccessException {
+        dataAccess.updateGame(game);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameData[] listGames() throws DataAccessException {
+        return dataAccess.listGames();
+    }
+
+    @Benchmark
+    public void listGamePage(Blackhole blackhole) throws DataAccessException {
+        dataAccess.listGames(GameQuery.firstPage(100), blackhole::consume);
+    }
+}
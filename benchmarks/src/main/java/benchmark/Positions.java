@@ -0,0 +1,29 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Perft;
+
+/**
+ * Positions shared by the benchmarks, as FEN strings
+ */
+final class Positions {
+    static final String START = Perft.START_FEN;
+    static final String MIDDLEGAME = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP2BPPP/R2QKB1R w - - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    static final String CHECKMATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 0 1";
+    static final String STALEMATE = "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1";
+
+    private Positions() {
+    }
+
+    static ChessGame load(String name) {
+        return Perft.fromFen(switch (name) {
+            case "start" -> START;
+            case "middlegame" -> MIDDLEGAME;
+            case "endgame" -> ENDGAME;
+            case "checkmate" -> CHECKMATE;
+            case "stalemate" -> STALEMATE;
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        });
+    }
+}
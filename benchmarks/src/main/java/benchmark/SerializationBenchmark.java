@@ -0,0 +1,52 @@
+package benchmark;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import serialization.Json;
+import websocket.messages.LoadGameMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round-trips of a game, as done when storing a game and when sending
+ * LOAD_GAME messages
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private static final Gson GSON = Json.GSON;
+
+    private ChessGame game;
+    private String gameJson;
+
+    @Setup
+    public void setUp() {
+        game = Positions.load("middlegame");
+        gameJson = GSON.toJson(game);
+    }
+
+    @Benchmark
+    public String gameToJson() {
+        return GSON.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame gameFromJson() {
+        return GSON.fromJson(gameJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame gameRoundTrip() {
+        return GSON.fromJson(GSON.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public String loadGameMessageToJson() {
+        return GSON.toJson(new LoadGameMessage(game));
+    }
+}
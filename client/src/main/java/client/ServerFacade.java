@@ -1,13 +1,15 @@
 package client;
 
-import com.google.gson.Gson;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
+import serialization.Json;
 import websocket.WebSocketClient;
 
 import java.io.*;
 import java.net.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 
 public class ServerFacade {
@@ -39,11 +41,21 @@ public class ServerFacade {
         this.makeRequest("DELETE", path, null, null, authToken);
     }
 
+    // the server pages the list, so keep following nextCursor until the last page
     public GameData[] listGames(String authToken) throws Exception {
+        // message is only set when the server failed after it had started sending the page
+        record ListGamesResp(GameData[] games, Integer nextCursor, String message) {}
+        var games = new ArrayList<GameData>();
         var path = "/game";
-        record ListGamesResp(GameData[] games) {}
-        var response = this.makeRequest("GET", path, null, ListGamesResp.class, authToken);
-        return response.games();
+        while (path != null) {
+            var response = this.makeRequest("GET", path, null, ListGamesResp.class, authToken);
+            if (response.message() != null) {
+                throw new Exception(response.message());
+            }
+            games.addAll(Arrays.asList(response.games()));
+            path = response.nextCursor() == null ? null : "/game?after=" + response.nextCursor();
+        }
+        return games.toArray(new GameData[0]);
     }
 
     public GameData createGame(String gameName, String authToken) throws Exception {
@@ -88,7 +100,7 @@ public class ServerFacade {
     private static void writeBody(Object request, HttpURLConnection http) throws IOException {
         if (request != null) {
             http.addRequestProperty("Content-Type", "application/json");
-            String reqData = new Gson().toJson(request);
+            String reqData = Json.GSON.toJson(request);
             try (OutputStream reqBody = http.getOutputStream()) {
                 reqBody.write(reqData.getBytes());
             }
@@ -109,7 +121,7 @@ public class ServerFacade {
             try (InputStream respBody = http.getInputStream()) {
                 InputStreamReader reader = new InputStreamReader(respBody);
                 if (responseClass != null) {
-                    response = new Gson().fromJson(reader, responseClass);
+                    response = Json.GSON.fromJson(reader, responseClass);
                 }
             }
         }
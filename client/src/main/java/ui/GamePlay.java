@@ -29,6 +29,9 @@ public class GamePlay implements WebSocketClient.ServerMessageHandler {
     private ChessPosition highlightedPosition = null;
     private boolean hasPlayerResigned = false;
     private boolean gameLoaded = true;
+    // sequence number of the last move applied; null until a LOAD_GAME brings one
+    private Integer moveSequence = null;
+    private boolean awaitingGame = false;
 
     public GamePlay(GameData gameData, WebSocketClient webSocketClient, boolean isWhitePlayer, AuthData authData) {
         this.out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
@@ -53,7 +56,8 @@ public class GamePlay implements WebSocketClient.ServerMessageHandler {
             UserGameCommand connectCommand = new UserGameCommand(
                     CommandType.CONNECT,
                     authData.authToken(),
-                    gameData.gameID()
+                    gameData.gameID(),
+                    true  // we apply MOVE_MADE updates ourselves
             );
             webSocketClient.sendCommand(connectCommand);
 
@@ -74,9 +78,14 @@ public class GamePlay implements WebSocketClient.ServerMessageHandler {
             case LOAD_GAME:
                 LoadGameMessage loadMessage = (LoadGameMessage) message;
                 this.game = loadMessage.getGame();
+                this.moveSequence = loadMessage.getSequence();
+                this.awaitingGame = false;
                 this.gameLoaded = true;
                 displayGame();
                 break;
+            case MOVE_MADE:
+                handleMoveMade((MoveMadeMessage) message);
+                break;
             case ERROR:
                 String errorMsg = ((ErrorMessage) message).getErrorMessage();
                 out.println(errorMsg);
@@ -90,6 +99,23 @@ public class GamePlay implements WebSocketClient.ServerMessageHandler {
         }
     }
 
+    // Applies the move locally, or asks for the whole game if we've missed one
+    private void handleMoveMade(MoveMadeMessage message) {
+        if (awaitingGame) {
+            return;
+        }
+        if (moveSequence != null && message.getSequence() == moveSequence + 1) {
+            game.applyMove(message.getMove());
+            if (game.getZobristKey() == message.getPositionHash()) {
+                moveSequence = message.getSequence();
+                displayGame();
+                return;
+            }
+        }
+        awaitingGame = true;
+        sendCommand(CommandType.REQUEST_GAME);
+    }
+
     private void displayGame() {
         if (!gameLoaded) {
             out.println("Game Loading...");
@@ -1,7 +1,7 @@
 package websocket;
 import com.google.gson.Gson;
 
-import com.google.gson.GsonBuilder;
+import serialization.Json;
 import websocket.messages.ServerMessage;
 import websocket.commands.UserGameCommand;
 
@@ -16,9 +16,7 @@ public class WebSocketClient extends Endpoint {
 
     public WebSocketClient(String serverUrl, ServerMessageHandler handler) throws Exception {
         this.messageHandler = handler;
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(ServerMessage.class, new ServerMessageDeserializer())
-                .create();
+        this.gson = Json.GSON;
 
         URI uri = new URI(serverUrl);
         WebSocketContainer container = ContainerProvider.getWebSocketContainer();
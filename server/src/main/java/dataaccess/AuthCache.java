@@ -0,0 +1,143 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, concurrent map of auth tokens to their AuthData. Unknown tokens
+ * are remembered too (as negative entries, with a shorter TTL) so repeated
+ * requests with a bad token don't each go to the database. A deleted token
+ * leaves a tombstone that stays for that TTL however full the cache gets, so
+ * a read that started before the delete can't cache the old row again.
+ */
+class AuthCache {
+
+    /**
+     * The result of a lookup: null when the token isn't cached at all,
+     * otherwise an entry whose auth is null for a known-bad token.
+     * deleted marks the tombstone left by a logout.
+     */
+    record Entry(AuthData auth, long expiresAt, boolean deleted) {}
+
+    private final int maxTokens;
+    private final int trimTo;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Object trimLock = new Object();
+
+    AuthCache(int maxTokens, long ttlMillis, long negativeTtlMillis) {
+        this.maxTokens = maxTokens;
+        this.trimTo = maxTokens - maxTokens / 10;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    Entry get(String authToken) {
+        var entry = tokens.get(authToken);
+        if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+            if (tokens.remove(authToken, entry)) {
+                evictions.incrementAndGet();
+            }
+            entry = null;
+        }
+        (entry == null ? misses : hits).incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Caches what a database read returned for a token, null meaning it doesn't
+     * exist. A write that landed while the read was in flight wins.
+     */
+    void load(String authToken, AuthData auth) {
+        tokens.putIfAbsent(authToken, newEntry(auth));
+        trimIfFull();
+    }
+
+    /**
+     * Caches a token that was just written
+     */
+    void put(String authToken, AuthData auth) {
+        tokens.put(authToken, newEntry(auth));
+        trimIfFull();
+    }
+
+    /**
+     * Replaces a token that was just deleted with a tombstone
+     */
+    void delete(String authToken) {
+        tokens.put(authToken, new Entry(null, System.currentTimeMillis() + negativeTtlMillis, true));
+        trimIfFull();
+    }
+
+    void clear() {
+        tokens.clear();
+    }
+
+    CachingDataAccess.Stats stats() {
+        return new CachingDataAccess.Stats(hits.get(), misses.get(), evictions.get(), tokens.size());
+    }
+
+    private Entry newEntry(AuthData auth) {
+        long ttl = auth == null ? negativeTtlMillis : ttlMillis;
+        return new Entry(auth, System.currentTimeMillis() + ttl, false);
+    }
+
+    private void trimIfFull() {
+        if (tokens.size() > maxTokens) {
+            trim();
+        }
+    }
+
+    // Drops expired tokens, then unknown ones, then the valid tokens closest to expiring, until a
+    // tenth below the limit. So a flood of bad tokens trims once per tenth of the cache rather than
+    // on every put, and can't push out valid tokens while unknown ones are left to drop.
+    // Tombstones are only dropped once expired; there are at most a TTL's worth of logouts.
+    private void trim() {
+        synchronized (trimLock) {
+            if (tokens.size() <= maxTokens) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            var unknown = new ArrayList<Map.Entry<String, Entry>>();
+            var valid = new ArrayList<Map.Entry<String, Entry>>();
+            for (var token : tokens.entrySet()) {
+                if (token.getValue().expiresAt() <= now) {
+                    evict(token);
+                } else if (!token.getValue().deleted()) {
+                    (token.getValue().auth() == null ? unknown : valid).add(token);
+                }
+            }
+            evictUntilTrimmed(unknown);
+            evictUntilTrimmed(valid);
+        }
+    }
+
+    private void evictUntilTrimmed(List<Map.Entry<String, Entry>> candidates) {
+        if (tokens.size() <= trimTo) {
+            return;
+        }
+        candidates.sort(Comparator.comparingLong(token -> token.getValue().expiresAt()));
+        for (var token : candidates) {
+            if (tokens.size() <= trimTo) {
+                return;
+            }
+            evict(token);
+        }
+    }
+
+    private void evict(Map.Entry<String, Entry> token) {
+        if (tokens.remove(token.getKey(), token.getValue())) {
+            evictions.incrementAndGet();
+        }
+    }
+}
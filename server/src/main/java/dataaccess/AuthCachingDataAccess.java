@@ -0,0 +1,129 @@
+package dataaccess;
+
+import chess.ChessMove;
+import model.AuthData;
+import model.GameData;
+import model.GameSummary;
+import model.UserData;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps auth tokens in memory in front of another DataAccess, so the auth
+ * check every request makes is a hash lookup. Unknown tokens are cached as
+ * well, for a shorter time. createAuth, deleteAuth and clear write through
+ * and update the cache, so a logged-out token is refused at once.
+ * Everything other than auth tokens is passed straight through.
+ */
+public class AuthCachingDataAccess implements DataAccess {
+    private static final int MAX_TOKENS = 10_000;
+    private static final long TOKEN_TTL_MILLIS = 5 * 60 * 1000;
+    private static final long UNKNOWN_TOKEN_TTL_MILLIS = 30 * 1000;
+
+    private final DataAccess delegate;
+    private final AuthCache auths;
+
+    public AuthCachingDataAccess(DataAccess delegate) {
+        this(delegate, MAX_TOKENS, TOKEN_TTL_MILLIS, UNKNOWN_TOKEN_TTL_MILLIS);
+    }
+
+    public AuthCachingDataAccess(DataAccess delegate, int maxTokens, long ttlMillis, long unknownTtlMillis) {
+        this.delegate = delegate;
+        this.auths = new AuthCache(maxTokens, ttlMillis, unknownTtlMillis);
+    }
+
+    /**
+     * @return the auth token cache's counters
+     */
+    public CachingDataAccess.Stats stats() {
+        return auths.stats();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        delegate.clear();
+        auths.clear();
+    }
+
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        delegate.createUser(user);
+    }
+
+    @Override
+    public UserData getUser(String username) throws DataAccessException {
+        return delegate.getUser(username);
+    }
+
+    @Override
+    public void createAuth(AuthData auth) throws DataAccessException {
+        delegate.createAuth(auth);
+        auths.put(auth.authToken(), auth);
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        if (authToken == null) {
+            return delegate.getAuth(null);
+        }
+        var cached = auths.get(authToken);
+        if (cached != null) {
+            return cached.auth();
+        }
+        var auth = delegate.getAuth(authToken);
+        auths.load(authToken, auth);
+        return auth;
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        delegate.deleteAuth(authToken);
+        // a tombstone, so a read that raced with the delete can't bring it back
+        auths.delete(authToken);
+    }
+
+    @Override
+    public GameData[] listGames() throws DataAccessException {
+        return delegate.listGames();
+    }
+
+    @Override
+    public void listGames(GameQuery query, Consumer<GameSummary> consumer) throws DataAccessException {
+        delegate.listGames(query, consumer);
+    }
+
+    @Override
+    public int maxGameID() throws DataAccessException {
+        return delegate.maxGameID();
+    }
+
+    @Override
+    public void createGame(GameData game) throws DataAccessException {
+        delegate.createGame(game);
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        return delegate.getGame(gameID);
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        delegate.updateGame(game);
+    }
+
+    @Override
+    public boolean replacePlayers(GameData expected, GameData updated) throws DataAccessException {
+        return delegate.replacePlayers(expected, updated);
+    }
+
+    @Override
+    public void recordMove(GameData game, ChessMove move) throws DataAccessException {
+        delegate.recordMove(game, move);
+    }
+
+    @Override
+    public ChessMove[] getMoves(int gameID) throws DataAccessException {
+        return delegate.getMoves(gameID);
+    }
+}
@@ -0,0 +1,270 @@
+package dataaccess;
+
+import chess.ChessMove;
+import model.AuthData;
+import model.GameData;
+import model.GameSummary;
+import model.UserData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps recently used games in memory in front of another DataAccess.
+ * Game writes go to the underlying store first and then replace the cached
+ * copy, so cached games are never ahead of the database. Writes to one game
+ * hold that game's stripe lock, so the cache ends up with the last write
+ * made. Reads take no lock. Games are dropped once they haven't been read or
+ * written for the TTL. When the cache is full, the least recently used games
+ * are dropped until it is a tenth below the limit, so a full cache doesn't
+ * scan on every write.
+ * <p>
+ * Games are copied on the way in and out, so getGame never hands out the
+ * cached ChessGame. Callers that change their copy must write it back with
+ * updateGame or recordMove. Everything other than games is passed straight
+ * through.
+ */
+public class CachingDataAccess implements DataAccess {
+
+    /**
+     * A snapshot of the cache's counters
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private static final int DEFAULT_MAX_GAMES = 1000;
+    private static final long DEFAULT_TTL_MILLIS = 30 * 60 * 1000;
+    private static final int LOCK_STRIPES = 64;
+
+    private final DataAccess delegate;
+    private final int maxGames;
+    private final int trimTo;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Integer, CachedGame> games = new ConcurrentHashMap<>();
+    private final Object[] gameLocks = new Object[LOCK_STRIPES];
+    private final Object trimLock = new Object();
+    // orders uses for eviction; the clock can give several uses the same millisecond
+    private final AtomicLong useCounter = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final class CachedGame {
+        private final GameData game;
+        // wall-clock millis of the last read or write, for the TTL
+        private volatile long lastAccessMillis;
+        // useCounter value at the last read or write, for LRU order
+        private volatile long accessOrder;
+
+        CachedGame(GameData game, long now) {
+            this.game = game;
+            touch(now);
+        }
+
+        void touch(long now) {
+            lastAccessMillis = now;
+            accessOrder = useCounter.incrementAndGet();
+        }
+    }
+
+    public CachingDataAccess(DataAccess delegate) {
+        this(delegate, DEFAULT_MAX_GAMES, DEFAULT_TTL_MILLIS);
+    }
+
+    public CachingDataAccess(DataAccess delegate, int maxGames, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxGames = maxGames;
+        this.trimTo = maxGames - maxGames / 10;
+        this.ttlMillis = ttlMillis;
+        for (int i = 0; i < gameLocks.length; i++) {
+            gameLocks[i] = new Object();
+        }
+    }
+
+    private Object lockFor(int gameID) {
+        return gameLocks[Math.floorMod(gameID, LOCK_STRIPES)];
+    }
+
+    /**
+     * @return the game cache's counters
+     */
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), games.size());
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        games.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        delegate.createUser(user);
+    }
+
+    @Override
+    public UserData getUser(String username) throws DataAccessException {
+        return delegate.getUser(username);
+    }
+
+    @Override
+    public void createAuth(AuthData auth) throws DataAccessException {
+        delegate.createAuth(auth);
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        return delegate.getAuth(authToken);
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        delegate.deleteAuth(authToken);
+    }
+
+    @Override
+    public GameData[] listGames() throws DataAccessException {
+        return delegate.listGames();
+    }
+
+    @Override
+    public void listGames(GameQuery query, Consumer<GameSummary> consumer) throws DataAccessException {
+        // writes go through, so the delegate's summaries are never behind the cache
+        delegate.listGames(query, consumer);
+    }
+
+    @Override
+    public int maxGameID() throws DataAccessException {
+        return delegate.maxGameID();
+    }
+
+    @Override
+    public void createGame(GameData game) throws DataAccessException {
+        synchronized (lockFor(game.gameID())) {
+            delegate.createGame(game);
+            cache(game);
+        }
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        long now = System.currentTimeMillis();
+        var cached = games.get(gameID);
+        if (cached != null) {
+            if (now - cached.lastAccessMillis < ttlMillis) {
+                cached.touch(now);
+                hits.incrementAndGet();
+                return cached.game.copy();
+            }
+            if (games.remove(gameID, cached)) {
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        var game = delegate.getGame(gameID);
+        if (game == null) {
+            return null;
+        }
+        // a write that raced with the read above is newer, so it wins
+        if (games.putIfAbsent(gameID, new CachedGame(game.copy(), now)) == null) {
+            trimIfFull(now);
+        }
+        return game;
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        synchronized (lockFor(game.gameID())) {
+            try {
+                delegate.updateGame(game);
+            } catch (DataAccessException e) {
+                games.remove(game.gameID());
+                throw e;
+            }
+            cache(game);
+        }
+    }
+
+    @Override
+    public boolean replacePlayers(GameData expected, GameData updated) throws DataAccessException {
+        synchronized (lockFor(expected.gameID())) {
+            boolean replaced;
+            try {
+                replaced = delegate.replacePlayers(expected, updated);
+            } catch (DataAccessException e) {
+                games.remove(expected.gameID());
+                throw e;
+            }
+            var cached = games.get(expected.gameID());
+            if (cached != null) {
+                if (replaced) {
+                    cache(cached.game.withPlayers(updated.whiteUsername(), updated.blackUsername()));
+                } else {
+                    // the seats changed under the cache's copy, so read them afresh
+                    games.remove(expected.gameID());
+                }
+            }
+            return replaced;
+        }
+    }
+
+    @Override
+    public void recordMove(GameData game, ChessMove move) throws DataAccessException {
+        synchronized (lockFor(game.gameID())) {
+            try {
+                delegate.recordMove(game, move);
+            } catch (DataAccessException e) {
+                // the store may hold part of the write, so read it afresh next time
+                games.remove(game.gameID());
+                throw e;
+            }
+            // moves leave the seats alone, and the cached ones are newer than the caller's if a join got in between
+            var cached = games.get(game.gameID());
+            if (cached != null) {
+                cache(game.withPlayers(cached.game.whiteUsername(), cached.game.blackUsername()));
+            }
+        }
+    }
+
+    @Override
+    public ChessMove[] getMoves(int gameID) throws DataAccessException {
+        return delegate.getMoves(gameID);
+    }
+
+    // callers hold the game's stripe lock
+    private void cache(GameData game) {
+        long now = System.currentTimeMillis();
+        games.put(game.gameID(), new CachedGame(game.copy(), now));
+        trimIfFull(now);
+    }
+
+    // drops expired games, then the least recently used, until the cache is a tenth below its limit
+    private void trimIfFull(long now) {
+        if (games.size() <= maxGames) {
+            return;
+        }
+        synchronized (trimLock) {
+            if (games.size() <= maxGames) {
+                return;
+            }
+            var entries = new ArrayList<>(games.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().accessOrder));
+            int size = entries.size();
+            for (var entry : entries) {
+                boolean expired = now - entry.getValue().lastAccessMillis >= ttlMillis;
+                if ((expired || size > trimTo) && games.remove(entry.getKey(), entry.getValue())) {
+                    evictions.incrementAndGet();
+                    size--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of JDBC connections. Connections handed out are wrappers
+ * whose close() returns the underlying connection to the pool, so callers
+ * keep using try-with-resources exactly as they would with DriverManager.
+ * <p>
+ * Idle connections are checked with {@link Connection#isValid} before being
+ * handed out again, closed once they have been idle for longer than the idle
+ * timeout, and retired once they are older than the max lifetime.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Pool settings, all durations in milliseconds
+     */
+    record Config(int maxSize, long connectionTimeout, long idleTimeout, long maxLifetime, int validationTimeoutSeconds) {
+        static final Config DEFAULT = new Config(10, 30_000, 600_000, 1_800_000, 5);
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     */
+    public record Stats(int total, int active, int idle, int waiting,
+                        long created, long closed, long timeouts) {}
+
+    // connections used more recently than this are handed out without a validation round trip
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private int total;
+    private boolean shutdown;
+
+    ConnectionPool(ConnectionFactory factory, Config config) {
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(config.idleTimeout(), config.maxLifetime()) / 2);
+        housekeeper.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the connection timeout for one to free up
+     */
+    Connection getConnection() throws SQLException {
+        try {
+            if (!permits.tryAcquire(config.connectionTimeout(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException(String.format(
+                        "Timed out after %dms waiting for a database connection", config.connectionTimeout()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = takeIdle()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lend();
+                }
+                destroy(pooled);
+            }
+            return newConnection().lend();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    Stats stats() {
+        synchronized (this) {
+            int idleCount = idle.size();
+            return new Stats(total, total - idleCount, idleCount, permits.getQueueLength(),
+                    created.get(), closed.get(), timeouts.get());
+        }
+    }
+
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        Deque<PooledConnection> toClose;
+        synchronized (this) {
+            shutdown = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+        }
+        toClose.forEach(this::destroy);
+    }
+
+    private synchronized PooledConnection takeIdle() {
+        return idle.pollFirst();
+    }
+
+    private PooledConnection newConnection() throws SQLException {
+        var connection = factory.create();
+        synchronized (this) {
+            total++;
+        }
+        created.incrementAndGet();
+        return new PooledConnection(connection, System.currentTimeMillis());
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (isExpired(pooled, now)) {
+            return false;
+        }
+        if (now - pooled.lastUsed < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(config.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return now - pooled.createdAt >= config.maxLifetime() || now - pooled.lastUsed >= config.idleTimeout();
+    }
+
+    // called when a borrower closes its wrapper
+    private void release(PooledConnection pooled) {
+        try {
+            boolean reusable = !pooled.connection.isClosed() && resetState(pooled.connection);
+            pooled.lastUsed = System.currentTimeMillis();
+            boolean keep;
+            synchronized (this) {
+                keep = reusable && !shutdown && pooled.lastUsed - pooled.createdAt < config.maxLifetime();
+                if (keep) {
+                    idle.offerFirst(pooled);
+                }
+            }
+            if (!keep) {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // undoes anything a borrower may have left behind, e.g. an open transaction
+    private boolean resetState(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        var expired = new ArrayDeque<PooledConnection>();
+        synchronized (this) {
+            idle.removeIf(pooled -> isExpired(pooled, now) && expired.add(pooled));
+        }
+        expired.forEach(this::destroy);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        synchronized (this) {
+            total--;
+        }
+        closed.incrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {
+            // the connection is being thrown away either way
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection connection;
+        private final long createdAt;
+        private long lastUsed;
+
+        PooledConnection(Connection connection, long createdAt) {
+            this.connection = connection;
+            this.createdAt = createdAt;
+            this.lastUsed = createdAt;
+        }
+
+        // wraps the connection in a proxy that can only be closed once
+        Connection lend() {
+            var returned = new boolean[1];
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                if (!returned[0]) {
+                                    returned[0] = true;
+                                    release(this);
+                                }
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                return returned[0] || connection.isClosed();
+                            }
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            case "toString" -> {
+                                return "Pooled" + connection;
+                            }
+                            default -> {
+                                if (returned[0]) {
+                                    throw new SQLException("Connection has already been returned to the pool");
+                                }
+                            }
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package dataaccess;
+import chess.ChessMove;
 import model.UserData;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
+
+import java.util.function.Consumer;
 
 public interface DataAccess {
     void clear() throws DataAccessException;
+    // user.password() is already hashed; services hash it with PasswordHasher
     void createUser(UserData user) throws DataAccessException;
     UserData getUser(String username) throws DataAccessException;
     void createAuth(AuthData auth) throws DataAccessException;
     AuthData getAuth(String authToken) throws DataAccessException;
     void deleteAuth(String authToken) throws DataAccessException;
     GameData[] listGames() throws DataAccessException;
+    // passes one page of the game list to consumer as it is read, without loading any boards
+    void listGames(GameQuery query, Consumer<GameSummary> consumer) throws DataAccessException;
+    // the highest gameID stored, or 0 when there are no games
+    int maxGameID() throws DataAccessException;
+    // fails if a game with the same gameID already exists
     void createGame(GameData game) throws DataAccessException;
     GameData getGame(int gameId) throws DataAccessException;
     void updateGame(GameData game) throws DataAccessException;
+    // writes only updated's players, and only while the seats still hold expected's players;
+    // false when another write changed a seat first
+    boolean replacePlayers(GameData expected, GameData updated) throws DataAccessException;
+    // game holds the state after the move has been made
+    void recordMove(GameData game, ChessMove move) throws DataAccessException;
+    ChessMove[] getMoves(int gameID) throws DataAccessException;
 }
 
@@ -0,0 +1,37 @@
+package dataaccess;
+
+import model.GameSummary;
+
+/**
+ * Selects one page of the game list. Games come back in gameID order, so the
+ * last gameID of a page is the cursor for the next one.
+ *
+ * @param afterGameID only games with a larger gameID; 0 starts from the beginning
+ * @param limit the most games to return
+ * @param openSeats only games with an empty seat
+ * @param player only games this user plays in, or null for anyone's
+ * @param finished only finished games when true, only active ones when false, or null for both
+ */
+public record GameQuery(int afterGameID, int limit, boolean openSeats, String player, Boolean finished) {
+
+    public GameQuery {
+        if (afterGameID < 0 || limit < 1) {
+            throw new IllegalArgumentException("Error: bad request");
+        }
+    }
+
+    public static GameQuery firstPage(int limit) {
+        return new GameQuery(0, limit, false, null, null);
+    }
+
+    public GameQuery withLimit(int limit) {
+        return new GameQuery(afterGameID, limit, openSeats, player, finished);
+    }
+
+    public boolean matches(GameSummary game) {
+        return game.gameID() > afterGameID
+                && (!openSeats || game.hasOpenSeat())
+                && (player == null || game.hasPlayer(player))
+                && (finished == null || finished == game.isOver());
+    }
+}
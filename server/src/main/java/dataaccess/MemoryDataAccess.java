@@ -1,29 +1,62 @@
 package dataaccess;
 
+import chess.ChessMove;
 import model.GameData;
+import model.GameSummary;
 import model.UserData;
 import model.AuthData;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
 
+/**
+ * In-memory store that is safe to share between Jetty's worker threads and
+ * the WebSocket handler. Single-key operations are atomic on the concurrent
+ * maps; game writes take that game's stripe lock, so a move and its move
+ * list land together and a seat is only taken while it is still free. Games are kept
+ * sorted by gameID so a page of the game list starts right at its cursor.
+ * <p>
+ * Games are copied on the way in and out, like a database row would be, so
+ * a caller moving its ChessGame never changes the stored one or another
+ * caller's.
+ */
 public class MemoryDataAccess implements DataAccess{
-    private final Map<String, UserData> users = new HashMap<>();
-    private final Map<String, AuthData> auths = new HashMap<>();
-    private final Map<Integer, GameData> games = new HashMap<>();
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, UserData> users = new ConcurrentHashMap<>();
+    private final Map<String, AuthData> auths = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Integer, GameData> games = new ConcurrentSkipListMap<>();
+    private final Map<Integer, List<ChessMove>> moves = new ConcurrentHashMap<>();
+    private final Object[] gameLocks = new Object[LOCK_STRIPES];
+
+    public MemoryDataAccess() {
+        for (int i = 0; i < gameLocks.length; i++) {
+            gameLocks[i] = new Object();
+        }
+    }
+
+    private Object lockFor(int gameID) {
+        return gameLocks[Math.floorMod(gameID, LOCK_STRIPES)];
+    }
 
     @Override
     public void clear() {
         users.clear();
         auths.clear();
         games.clear();
+        moves.clear();
     }
 
     @Override
     public void createUser(UserData user) throws DataAccessException {
-        if (users.containsKey(user.username())) {
+        if (users.putIfAbsent(user.username(), user) != null) {
             throw new DataAccessException("Error: already taken");
         }
-        users.put(user.username(), user);
     }
 
     @Override
@@ -38,34 +71,96 @@ public class MemoryDataAccess implements DataAccess{
 
     @Override
     public AuthData getAuth(String authToken) throws DataAccessException {
-        return auths.get(authToken);
+        return authToken == null ? null : auths.get(authToken);
     }
 
     @Override
     public void deleteAuth(String authToken) throws DataAccessException {
-        auths.remove(authToken);
+        if (authToken != null) {
+            auths.remove(authToken);
+        }
     }
 
     @Override
     public GameData[] listGames() throws DataAccessException {
-        return games.values().toArray(new GameData[0]);
+        return games.values().stream().map(GameData::copy).toArray(GameData[]::new);
+    }
+
+    @Override
+    public void listGames(GameQuery query, Consumer<GameSummary> consumer) throws DataAccessException {
+        int found = 0;
+        for (GameData game : games.tailMap(query.afterGameID(), false).values()) {
+            var summary = GameSummary.of(game);
+            if (query.matches(summary)) {
+                consumer.accept(summary);
+                if (++found == query.limit()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int maxGameID() throws DataAccessException {
+        var last = games.lastEntry();
+        return last == null ? 0 : last.getKey();
     }
 
     @Override
     public void createGame(GameData game) throws DataAccessException {
-        games.put(game.gameID(), game);
+        synchronized (lockFor(game.gameID())) {
+            if (games.putIfAbsent(game.gameID(), game.copy()) != null) {
+                throw new DataAccessException("Error: already taken");
+            }
+            moves.remove(game.gameID());
+        }
     }
 
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
-        return games.get(gameID);
+        var game = games.get(gameID);
+        return game == null ? null : game.copy();
     }
 
     @Override
     public void updateGame(GameData game) throws DataAccessException {
-        if (!games.containsKey(game.gameID())) {
-            throw new DataAccessException("Error: bad request");
+        synchronized (lockFor(game.gameID())) {
+            if (games.replace(game.gameID(), game.copy()) == null) {
+                throw new DataAccessException("Error: bad request");
+            }
+        }
+    }
+
+    @Override
+    public boolean replacePlayers(GameData expected, GameData updated) throws DataAccessException {
+        synchronized (lockFor(expected.gameID())) {
+            var current = games.get(expected.gameID());
+            if (current == null || !Objects.equals(current.whiteUsername(), expected.whiteUsername())
+                    || !Objects.equals(current.blackUsername(), expected.blackUsername())) {
+                return false;
+            }
+            games.put(expected.gameID(), current.withPlayers(updated.whiteUsername(), updated.blackUsername()));
+            return true;
+        }
+    }
+
+    @Override
+    public void recordMove(GameData game, ChessMove move) throws DataAccessException {
+        synchronized (lockFor(game.gameID())) {
+            var current = games.get(game.gameID());
+            if (current == null) {
+                throw new DataAccessException("Error: bad request");
+            }
+            // a move doesn't change the seats, which may have been taken since the caller read the game
+            games.put(game.gameID(), game.copy().withPlayers(current.whiteUsername(), current.blackUsername()));
+            moves.computeIfAbsent(game.gameID(), id -> new ArrayList<>()).add(move);
+        }
+    }
+
+    @Override
+    public ChessMove[] getMoves(int gameID) throws DataAccessException {
+        synchronized (lockFor(gameID)) {
+            return moves.getOrDefault(gameID, List.of()).toArray(new ChessMove[0]);
         }
-        games.put(game.gameID(), game);
     }
 }
@@ -1,14 +1,24 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.MoveBuffer;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import model.AuthData;
 import model.GameData;
+import model.GameStatus;
+import model.GameSummary;
 import model.UserData;
-import org.mindrot.jbcrypt.BCrypt;
+import serialization.Json;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
@@ -16,16 +26,23 @@ import static java.sql.Types.NULL;
 
 public class MySqlDataAccess implements DataAccess {
 
+    // full game state is rewritten every this many moves; moves in between are only appended
+    private static final int SNAPSHOT_INTERVAL = 20;
+
+    // everything the game list shows; never game_state, which would have to be read and decoded
+    private static final String SUMMARY_COLUMNS = "game_id, white_username, black_username, game_name, status, winner";
+
     private final Gson gson;
 
     public MySqlDataAccess()  throws DataAccessException {
-        gson = new Gson();
+        gson = Json.GSON;
         configureDatabase();
     }
 
     @Override
     public void clear() throws DataAccessException {
         var statements = new String[] {
+                "DROP TABLE IF EXISTS game_moves",
                 "DROP TABLE IF EXISTS auth_tokens",
                 "DROP TABLE IF EXISTS games",
                 "DROP TABLE IF EXISTS users",
@@ -46,8 +63,7 @@ public class MySqlDataAccess implements DataAccess {
     @Override
     public void createUser(UserData user) throws DataAccessException {
         var statement = "INSERT INTO users(username, password, email) VALUES (?, ?, ?)";
-        var hashedPassword = BCrypt.hashpw(user.password(), BCrypt.gensalt());
-        executeUpdate(statement, user.username(), hashedPassword, user.email());
+        executeUpdate(statement, user.username(), user.password(), user.email());
     }
 
     @Override
@@ -129,44 +145,154 @@ public class MySqlDataAccess implements DataAccess {
 
     @Override
     public GameData[] listGames() throws DataAccessException {
-        var games = new ArrayList<GameData>();
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT game_id, white_username, black_username, game_name, game_state FROM games";
-            try (var ps = conn.prepareStatement(statement)) {
+            return readGames(conn);
+        } catch (Exception e) {
+            throw new DataAccessException(String.format("Unable to read games: %s", e.getMessage()));
+        }
+    }
+
+    // helper function, reads every game on conn so callers that already hold a connection don't take a second one
+    private GameData[] readGames(Connection conn) throws SQLException {
+        var games = new LinkedHashMap<Integer, GameData>();
+        var statement = "SELECT game_id, white_username, black_username, game_name, game_state, status, winner FROM games";
+        try (var ps = conn.prepareStatement(statement)) {
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    var game = readGame(rs);
+                    games.put(game.gameID(), game);
+                }
+            }
+        }
+        // replay every move made since each game's snapshot in one query
+        var movesStatement = "SELECT m.game_id, m.move FROM game_moves m " +
+                "JOIN games g ON m.game_id = g.game_id WHERE m.ply > g.snapshot_ply ORDER BY m.game_id, m.ply";
+        try (var ps = conn.prepareStatement(movesStatement)) {
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    var game = games.get(rs.getInt("game_id"));
+                    if (game != null) {
+                        game.game().applyMove(rs.getInt("move"));
+                    }
+                }
+            }
+        }
+        return games.values().toArray(new GameData[0]);
+    }
+
+    @Override
+    public int maxGameID() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement("SELECT MAX(game_id) FROM games")) {
+                try (var rs = ps.executeQuery()) {
+                    // MAX over no rows is NULL, which getInt reads as 0
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("Unable to read data: %s", e.getMessage()));
+        }
+    }
+
+    @Override
+    public void listGames(GameQuery query, Consumer<GameSummary> consumer) throws DataAccessException {
+        var params = new ArrayList<Object>();
+        String statement;
+        if (query.player() == null) {
+            statement = pageStatement(query, null, params);
+        } else {
+            // one index range per seat instead of an OR that would scan every game after the cursor
+            statement = "(" + pageStatement(query, "white_username", params) + ") UNION (" +
+                    pageStatement(query, "black_username", params) + ") ORDER BY game_id LIMIT ?";
+            params.add(query.limit());
+        }
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // makes Connector/J hand over rows as they arrive instead of buffering the whole result
+                ps.setFetchSize(Integer.MIN_VALUE);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
                 try (var rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        games.add(readGame(rs));
+                        consumer.accept(new GameSummary(
+                                rs.getInt("game_id"),
+                                rs.getString("white_username"),
+                                rs.getString("black_username"),
+                                rs.getString("game_name"),
+                                readStatus(rs),
+                                readWinner(rs)
+                        ));
                     }
                 }
             }
-        } catch (Exception e) {
+        } catch (SQLException e) {
             throw new DataAccessException(String.format("Unable to read games: %s", e.getMessage()));
         }
-        return games.toArray(new GameData[0]);
+    }
+
+    // helper function, builds the SELECT for one page, restricted to games where the player sits in playerColumn
+    private static String pageStatement(GameQuery query, String playerColumn, ArrayList<Object> params) {
+        var statement = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS).append(" FROM games WHERE game_id > ?");
+        params.add(query.afterGameID());
+        if (playerColumn != null) {
+            statement.append(" AND ").append(playerColumn).append(" = ?");
+            params.add(query.player());
+        }
+        if (query.openSeats()) {
+            statement.append(" AND (white_username IS NULL OR black_username IS NULL)");
+        }
+        if (query.finished() != null) {
+            statement.append(query.finished() ? " AND status <> 'ACTIVE'" : " AND status = 'ACTIVE'");
+        }
+        statement.append(" ORDER BY game_id LIMIT ?");
+        params.add(query.limit());
+        return statement.toString();
     }
 
     // helper function
     private GameData readGame(ResultSet rs) throws SQLException {
-        var gameState = rs.getString("game_state");
-        var game = gson.fromJson(gameState, ChessGame.class);
+        var game = decodeGame(rs.getBytes("game_state"));
         return new GameData(
                 rs.getInt("game_id"),
                 rs.getString("white_username"),
                 rs.getString("black_username"),
                 rs.getString("game_name"),
-                game
+                game,
+                readStatus(rs),
+                readWinner(rs)
         );
     }
+
+    private static GameStatus readStatus(ResultSet rs) throws SQLException {
+        return GameStatus.valueOf(rs.getString("status"));
+    }
+
+    private static ChessGame.TeamColor readWinner(ResultSet rs) throws SQLException {
+        var winner = rs.getString("winner");
+        return winner == null ? null : ChessGame.TeamColor.valueOf(winner);
+    }
+
+    private static String statusOf(GameData game) {
+        return (game.status() == null ? GameStatus.ACTIVE : game.status()).name();
+    }
+
+    private static String winnerOf(GameData game) {
+        return game.winner() == null ? null : game.winner().name();
+    }
     @Override
     public void createGame(GameData game) throws DataAccessException {
-        var statement = "INSERT INTO games (game_id, game_name, white_username, black_username, game_state) VALUES (?, ?, ?, ?, ?)";
+        var statement = "INSERT INTO games (game_id, game_name, white_username, black_username, game_state, status, winner) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
         try (var conn = DatabaseManager.getConnection()) {
             try (var ps = conn.prepareStatement(statement)) {
                 ps.setInt(1, game.gameID());
                 ps.setString(2, game.gameName());
                 ps.setString(3, game.whiteUsername());
                 ps.setString(4, game.blackUsername());
-                ps.setString(5, gson.toJson(game.game()));  // Serialize the chess game to JSON
+                ps.setBytes(5, ChessGameCodec.encode(game.game()));  // Serialize the chess game to binary
+                ps.setString(6, statusOf(game));
+                ps.setString(7, winnerOf(game));
                 ps.executeUpdate();
             }
         } catch (SQLException e) {
@@ -177,13 +303,18 @@ public class MySqlDataAccess implements DataAccess {
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = "SELECT game_id, white_username, black_username, game_name, game_state " +
-                    "FROM games WHERE game_id=?";
+            var statement = "SELECT game_id, white_username, black_username, game_name, game_state, status, winner, " +
+                    "ply, snapshot_ply FROM games WHERE game_id=?";
             try (var ps = conn.prepareStatement(statement)) {
                 ps.setInt(1, gameID);
                 try (var rs = ps.executeQuery()) {
                     if (rs.next()) {
-                        return readGame(rs);
+                        var game = readGame(rs);
+                        int snapshotPly = rs.getInt("snapshot_ply");
+                        if (rs.getInt("ply") > snapshotPly) {
+                            replayMoves(conn, game.gameID(), snapshotPly, game.game());
+                        }
+                        return game;
                     }
                 }
             }
@@ -204,12 +335,16 @@ public class MySqlDataAccess implements DataAccess {
                     throw new DataAccessException("Game not found");
                 }
             }
-            var statement = "UPDATE games SET white_username=?, black_username=?, game_state=? WHERE game_id=?";
+            // the game passed in is current, so it becomes the new snapshot
+            var statement = "UPDATE games SET white_username=?, black_username=?, game_state=?, status=?, winner=?, " +
+                    "snapshot_ply=ply WHERE game_id=?";
             try (var ps = conn.prepareStatement(statement)) {
                 ps.setString(1, game.whiteUsername());
                 ps.setString(2, game.blackUsername());
-                ps.setString(3, gson.toJson(game.game()));
-                ps.setInt(4, game.gameID());
+                ps.setBytes(3, ChessGameCodec.encode(game.game()));
+                ps.setString(4, statusOf(game));
+                ps.setString(5, winnerOf(game));
+                ps.setInt(6, game.gameID());
                 ps.executeUpdate();
             }
         } catch (SQLException e) {
@@ -217,6 +352,106 @@ public class MySqlDataAccess implements DataAccess {
         }
     }
 
+    @Override
+    public boolean replacePlayers(GameData expected, GameData updated) throws DataAccessException {
+        var statement = "UPDATE games SET white_username=?, black_username=? " +
+                "WHERE game_id=? AND white_username <=> ? AND black_username <=> ?";
+        try (var conn = DatabaseManager.getConnection();
+             var ps = conn.prepareStatement(statement)) {
+            ps.setString(1, updated.whiteUsername());
+            ps.setString(2, updated.blackUsername());
+            ps.setInt(3, expected.gameID());
+            ps.setString(4, expected.whiteUsername());
+            ps.setString(5, expected.blackUsername());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s", e.getMessage()));
+        }
+    }
+
+    @Override
+    public void recordMove(GameData game, ChessMove move) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int ply;
+                try (var ps = conn.prepareStatement("SELECT ply FROM games WHERE game_id=? FOR UPDATE")) {
+                    ps.setInt(1, game.gameID());
+                    try (var rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new DataAccessException("Game not found");
+                        }
+                        ply = rs.getInt("ply") + 1;
+                    }
+                }
+                try (var ps = conn.prepareStatement("INSERT INTO game_moves (game_id, ply, move) VALUES (?, ?, ?)")) {
+                    ps.setInt(1, game.gameID());
+                    ps.setInt(2, ply);
+                    ps.setInt(3, MoveBuffer.pack(move));
+                    ps.executeUpdate();
+                }
+                // a move that ends the game is snapshotted too, so finished games need no replay
+                if (ply % SNAPSHOT_INTERVAL == 0 || game.isOver()) {
+                    var statement = "UPDATE games SET ply=?, snapshot_ply=?, game_state=?, status=?, winner=? WHERE game_id=?";
+                    try (var ps = conn.prepareStatement(statement)) {
+                        ps.setInt(1, ply);
+                        ps.setInt(2, ply);
+                        ps.setBytes(3, ChessGameCodec.encode(game.game()));
+                        ps.setString(4, statusOf(game));
+                        ps.setString(5, winnerOf(game));
+                        ps.setInt(6, game.gameID());
+                        ps.executeUpdate();
+                    }
+                } else {
+                    try (var ps = conn.prepareStatement("UPDATE games SET ply=?, status=?, winner=? WHERE game_id=?")) {
+                        ps.setInt(1, ply);
+                        ps.setString(2, statusOf(game));
+                        ps.setString(3, winnerOf(game));
+                        ps.setInt(4, game.gameID());
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | DataAccessException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s", e.getMessage()));
+        }
+    }
+
+    @Override
+    public ChessMove[] getMoves(int gameID) throws DataAccessException {
+        var moves = new ArrayList<ChessMove>();
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement("SELECT move FROM game_moves WHERE game_id=? ORDER BY ply")) {
+                ps.setInt(1, gameID);
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        moves.add(MoveBuffer.toChessMove(rs.getInt("move")));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("Unable to read moves: %s", e.getMessage()));
+        }
+        return moves.toArray(new ChessMove[0]);
+    }
+
+    // helper function, applies the moves made after the snapshot was written
+    private void replayMoves(Connection conn, int gameID, int snapshotPly, ChessGame game) throws SQLException {
+        try (var ps = conn.prepareStatement("SELECT move FROM game_moves WHERE game_id=? AND ply>? ORDER BY ply")) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, snapshotPly);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    game.applyMove(rs.getInt("move"));
+                }
+            }
+        }
+    }
+
     // helper function
     private int executeUpdate(String statement, Object... params) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
@@ -266,9 +501,23 @@ public class MySqlDataAccess implements DataAccess {
         game_name VARCHAR(255) NOT NULL,
         white_username VARCHAR(255),
         black_username VARCHAR(255),
-        game_state TEXT NOT NULL,
+        game_state BLOB NOT NULL,
+        ply INT NOT NULL DEFAULT 0,
+        snapshot_ply INT NOT NULL DEFAULT 0,
+        status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE',
+        winner VARCHAR(8),
         PRIMARY KEY (game_id)
     )
+    """,
+            // move holds a MoveBuffer-packed int, flags included from bit 15 up, so it needs a full INT
+            """
+    CREATE TABLE IF NOT EXISTS game_moves (
+        game_id INT NOT NULL,
+        ply INT NOT NULL,
+        move INT NOT NULL,
+        played_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        PRIMARY KEY (game_id, ply)
+    )
     """
     };
 
@@ -280,9 +529,180 @@ public class MySqlDataAccess implements DataAccess {
                     ps.executeUpdate();
                 }
             }
+            migrateGamesTable(conn);
+            migrateMovesTable(conn);
         } catch (SQLException ex) {
             throw new DataAccessException(String.format("Unable to configure database: %s", ex.getMessage()));
         }
     }
 
+    // Brings a games table created by an older version up to date
+    private void migrateGamesTable(Connection conn) throws SQLException {
+        if (columnType(conn, "games", "ply") == null) {
+            var statement = "ALTER TABLE games ADD COLUMN ply INT NOT NULL DEFAULT 0, " +
+                    "ADD COLUMN snapshot_ply INT NOT NULL DEFAULT 0";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.executeUpdate();
+            }
+        }
+        boolean addedStatus = columnType(conn, "games", "status") == null;
+        if (addedStatus) {
+            var statement = "ALTER TABLE games ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE', " +
+                    "ADD COLUMN winner VARCHAR(8)";
+            try (var ps = conn.prepareStatement(statement)) {
+                ps.executeUpdate();
+            }
+        }
+        var stateType = columnType(conn, "games", "game_state");
+        if (stateType != null && !stateType.toLowerCase().endsWith("blob")) {
+            migrateGameStates(conn);
+        }
+        if (addedStatus) {
+            backfillGameResults(conn);
+        }
+        for (var index : listIndexes.entrySet()) {
+            if (!indexExists(conn, index.getKey())) {
+                try (var ps = conn.prepareStatement("CREATE INDEX " + index.getKey() + " ON games " + index.getValue())) {
+                    ps.executeUpdate();
+                }
+            }
+        }
+    }
+
+    // the indexes the game list pages through, by name; created here so older tables get them too
+    private static final Map<String, String> listIndexes = Map.of(
+            "games_by_white", "(white_username, game_id)",
+            "games_by_black", "(black_username, game_id)",
+            "games_by_status", "(status, game_id)"
+    );
+
+    private boolean indexExists(Connection conn, String index) throws SQLException {
+        var indexQuery = "SELECT 1 FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME='games' AND INDEX_NAME=?";
+        try (var ps = conn.prepareStatement(indexQuery)) {
+            ps.setString(1, index);
+            try (var rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Marks games that were already mated or stalemated before the status column existed.
+    // Resignations were never stored, so those games stay active, as do rows that can't be decoded:
+    // migrateGameStates leaves malformed legacy JSON in place, and it mustn't stop the server starting.
+    private void backfillGameResults(Connection conn) throws SQLException {
+        var games = new LinkedHashMap<Integer, ChessGame>();
+        try (var ps = conn.prepareStatement("SELECT game_id, game_state FROM games");
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int gameID = rs.getInt("game_id");
+                try {
+                    games.put(gameID, decodeGame(rs.getBytes("game_state")));
+                } catch (RuntimeException e) {
+                    System.err.println("Not checking game " + gameID + " for a result: " + e.getMessage());
+                }
+            }
+        }
+        // the stored state is only the snapshot, so the moves made since then are replayed first
+        var movesStatement = "SELECT m.game_id, m.move FROM game_moves m " +
+                "JOIN games g ON m.game_id = g.game_id WHERE m.ply > g.snapshot_ply ORDER BY m.game_id, m.ply";
+        try (var ps = conn.prepareStatement(movesStatement);
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                var game = games.get(rs.getInt("game_id"));
+                if (game != null) {
+                    game.applyMove(rs.getInt("move"));
+                }
+            }
+        }
+        try (var ps = conn.prepareStatement("UPDATE games SET status=?, winner=? WHERE game_id=?")) {
+            for (var game : games.entrySet()) {
+                var result = new GameData(game.getKey(), null, null, null, game.getValue()).withResultFromPosition();
+                if (result.isOver()) {
+                    ps.setString(1, statusOf(result));
+                    ps.setString(2, winnerOf(result));
+                    ps.setInt(3, result.gameID());
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // Moves used to be stored as SMALLINT, which has no room for MoveBuffer's flags from bit 15 up
+    private void migrateMovesTable(Connection conn) throws SQLException {
+        if ("smallint".equalsIgnoreCase(columnType(conn, "game_moves", "move"))) {
+            try (var ps = conn.prepareStatement("ALTER TABLE game_moves MODIFY move INT NOT NULL")) {
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private String columnType(Connection conn, String table, String column) throws SQLException {
+        var typeQuery = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME=? AND COLUMN_NAME=?";
+        try (var ps = conn.prepareStatement(typeQuery)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (var rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    // Games used to be stored as JSON in a TEXT column, written by Gson from the original 8x8 array
+    // board: {"board":{"squares":[[...]]},"currentTurn":...}. Switch the column to BLOB (which keeps
+    // the JSON bytes as they are) and re-encode the JSON rows in the binary format. A row that doesn't
+    // decode to a board with pieces on it is left as JSON instead of being overwritten with an empty board.
+    private void migrateGameStates(Connection conn) throws SQLException {
+        try (var ps = conn.prepareStatement("ALTER TABLE games MODIFY game_state BLOB NOT NULL")) {
+            ps.executeUpdate();
+        }
+
+        var encoded = new LinkedHashMap<Integer, byte[]>();
+        try (var ps = conn.prepareStatement("SELECT game_id, game_state FROM games");
+             var rs = ps.executeQuery()) {
+            while (rs.next()) {
+                var gameState = rs.getBytes("game_state");
+                if (ChessGameCodec.isEncoded(gameState)) {
+                    continue;
+                }
+                var game = decodeLegacyGame(rs.getInt("game_id"), gameState);
+                if (game != null) {
+                    encoded.put(rs.getInt("game_id"), ChessGameCodec.encode(game));
+                }
+            }
+        }
+        try (var ps = conn.prepareStatement("UPDATE games SET game_state=? WHERE game_id=?")) {
+            for (var row : encoded.entrySet()) {
+                ps.setBytes(1, row.getValue());
+                ps.setInt(2, row.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // null when the JSON doesn't parse or holds no pieces, so the migration keeps the row as it is
+    private ChessGame decodeLegacyGame(int gameID, byte[] gameState) {
+        try {
+            var game = gson.fromJson(new String(gameState, StandardCharsets.UTF_8), ChessGame.class);
+            if (game != null && game.getBoard().getOccupancy() != 0) {
+                return game;
+            }
+            System.err.println("Not migrating game " + gameID + ": its stored state has no pieces");
+        } catch (JsonParseException e) {
+            System.err.println("Not migrating game " + gameID + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    // reads the binary format, falling back to JSON for rows written before the migration
+    private ChessGame decodeGame(byte[] gameState) {
+        if (ChessGameCodec.isEncoded(gameState)) {
+            return ChessGameCodec.decode(gameState);
+        }
+        return gson.fromJson(new String(gameState, StandardCharsets.UTF_8), ChessGame.class);
+    }
+
 }
@@ -1,6 +1,6 @@
 package handler;
 
-import com.google.gson.Gson;
+import serialization.Json;
 import service.ClearService;
 import spark.Request;
 import spark.Response;
@@ -18,10 +18,10 @@ public class ClearHandler implements Route {
         try {
             clearService.clearDatabase();
             response.status(200);
-            return new Gson().toJson(new Result("success"));
+            return Json.GSON.toJson(new Result("success"));
         } catch (Exception e) {
             response.status(500);
-            return new Gson().toJson(new Result("Error: " + e.getMessage()));
+            return Json.GSON.toJson(new Result("Error: " + e.getMessage()));
         }
     }
 
@@ -0,0 +1,75 @@
+package handler;
+
+import chess.ChessBoard;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import serialization.Json;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Turns a WebSocket text frame into a command in a single streaming pass.
+ * The shared command adapter picks UserGameCommand or MakeMoveCommand from
+ * commandType as it reads, so the frame is never parsed into a tree first.
+ * Frames that are too long, aren't one JSON object, or are missing what the
+ * command needs are rejected before anything is dispatched.
+ */
+class CommandDecoder {
+    // the longest real command, a MAKE_MOVE with a promotion, is well under 300 characters
+    static final int MAX_FRAME_CHARS = 4096;
+
+    private final TypeAdapter<UserGameCommand> adapter = Json.GSON.getAdapter(UserGameCommand.class);
+
+    /**
+     * @throws IllegalArgumentException if the frame isn't a valid command, with a message for the client
+     */
+    UserGameCommand decode(String frame) {
+        if (frame == null || frame.isEmpty()) {
+            throw new IllegalArgumentException("Empty command");
+        }
+        if (frame.length() > MAX_FRAME_CHARS) {
+            throw new IllegalArgumentException("Command is too long");
+        }
+        UserGameCommand command;
+        try (var reader = new JsonReader(new StringReader(frame))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IllegalArgumentException("Command must be a JSON object");
+            }
+            command = adapter.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new IllegalArgumentException("Unexpected data after command");
+            }
+        } catch (IOException | IllegalStateException | JsonParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed command: " + e.getMessage());
+        }
+        if (command instanceof MakeMoveCommand makeMove) {
+            checkMove(makeMove.getMove());
+        }
+        return command;
+    }
+
+    private static void checkMove(ChessMove move) {
+        if (move == null) {
+            throw new IllegalArgumentException("MAKE_MOVE needs a move");
+        }
+        checkPosition("startPosition", move.getStartPosition());
+        checkPosition("endPosition", move.getEndPosition());
+    }
+
+    private static void checkPosition(String name, ChessPosition position) {
+        if (position == null) {
+            throw new IllegalArgumentException("MAKE_MOVE is missing its " + name);
+        }
+        if (!ChessBoard.isOnBoard(position)) {
+            throw new IllegalArgumentException(String.format("%s (%d, %d) is off the board",
+                    name, position.getRow(), position.getColumn()));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 package handler;
-import com.google.gson.Gson;
+import serialization.Json;
 import dataaccess.DataAccessException;
 import service.CreateGameService;
 import spark.Request;
@@ -17,21 +17,21 @@ public class CreateGameHandler implements Route {
         String authToken = request.headers("authorization");
 
         try {
-            CreateGameRequest createRequest = new Gson().fromJson(request.body(), CreateGameRequest.class);
+            CreateGameRequest createRequest = Json.GSON.fromJson(request.body(), CreateGameRequest.class);
             if (createRequest.gameName == null) {
                 response.status(400);
-                return new Gson().toJson(new ErrorResult("Error: bad request"));
+                return Json.GSON.toJson(new ErrorResult("Error: bad request"));
             }
             int gameID = createGameService.createGame(authToken, createRequest.gameName);
             response.status(200);
-            return new Gson().toJson(new CreateGameResult(gameID));
+            return Json.GSON.toJson(new CreateGameResult(gameID));
         } catch (DataAccessException ex) {
           if (ex.getMessage().equals("Error: unauthorized")) {
               response.status(401);
-              return new Gson().toJson(new ErrorResult("Error: unauthorized"));
+              return Json.GSON.toJson(new ErrorResult("Error: unauthorized"));
           }
           response.status(400);
-          return new Gson().toJson(new ErrorResult("Error: bad request"));
+          return Json.GSON.toJson(new ErrorResult("Error: bad request"));
         }
     }
     private static class CreateGameRequest {
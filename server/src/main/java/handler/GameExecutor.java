@@ -0,0 +1,114 @@
+package handler;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks one at a time per game on a shared pool of threads. Each game
+ * gets a mailbox; the first task submitted to an idle mailbox schedules a
+ * drain on the pool, and tasks submitted while it drains are queued behind
+ * it. Different games run in parallel, and a game's mailbox is removed as
+ * soon as it empties.
+ * <p>
+ * All mailbox state changes happen inside ConcurrentHashMap.compute, which
+ * only locks that game's entry.
+ */
+public class GameExecutor {
+    // a busy game hands its thread back after this many tasks so other games get a turn
+    private static final int MAX_TASKS_PER_DRAIN = 32;
+
+    private final Executor executor;
+    // only the default pool is shut down here; an executor passed in belongs to the caller
+    private final ExecutorService ownedPool;
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private static class Mailbox {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+    }
+
+    public GameExecutor() {
+        this(newDefaultPool(), true);
+    }
+
+    public GameExecutor(Executor executor) {
+        this(executor, false);
+    }
+
+    private GameExecutor(Executor executor, boolean owned) {
+        this.executor = executor;
+        this.ownedPool = owned ? (ExecutorService) executor : null;
+    }
+
+    private static ExecutorService newDefaultPool() {
+        var threadCount = new AtomicInteger();
+        // commands mostly wait on the database, so run more threads than cores
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "game-executor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the default pool's threads, dropping queued tasks. Does nothing
+     * for an executor passed to the constructor.
+     */
+    public void shutdown() {
+        if (ownedPool != null) {
+            ownedPool.shutdownNow();
+            mailboxes.clear();
+        }
+    }
+
+    /**
+     * Queues a task behind any others for the same game
+     */
+    public void submit(int gameID, Runnable task) {
+        var started = new boolean[1];
+        mailboxes.compute(gameID, (id, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new Mailbox();
+                started[0] = true;
+            }
+            mailbox.tasks.add(task);
+            return mailbox;
+        });
+        if (started[0]) {
+            executor.execute(() -> drain(gameID));
+        }
+    }
+
+    private void drain(int gameID) {
+        for (int i = 0; i < MAX_TASKS_PER_DRAIN; i++) {
+            Runnable task = next(gameID);
+            if (task == null) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error running task for game " + gameID + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        // the mailbox is still registered, so new tasks keep queueing behind this
+        executor.execute(() -> drain(gameID));
+    }
+
+    // takes the game's next task, dropping the mailbox when there are none left
+    private Runnable next(int gameID) {
+        var next = new Runnable[1];
+        mailboxes.computeIfPresent(gameID, (id, mailbox) -> {
+            next[0] = mailbox.tasks.poll();
+            return next[0] == null ? null : mailbox;
+        });
+        return next[0];
+    }
+}
@@ -1,6 +1,6 @@
 package handler;
 import chess.ChessGame;
-import com.google.gson.Gson;
+import serialization.Json;
 import service.JoinGameService;
 import spark.Request;
 import spark.Response;
@@ -19,25 +19,25 @@ public class JoinGameHandler implements Route {
         String authToken = request.headers("authorization");
 
         try {
-            JoinGameRequest joinRequest = new Gson().fromJson(request.body(), JoinGameRequest.class);
+            JoinGameRequest joinRequest = Json.GSON.fromJson(request.body(), JoinGameRequest.class);
             if (joinRequest.gameID == null || joinRequest.playerColor == null) {
                 response.status(400);
-                return new Gson().toJson(new ErrorResult("Error: bad request"));
+                return Json.GSON.toJson(new ErrorResult("Error: bad request"));
             }
             ChessGame.TeamColor playerColor = ChessGame.TeamColor.valueOf(joinRequest.playerColor);
             joinGameService.joinGame(authToken, playerColor, joinRequest.gameID);
             response.status(200);
-            return new Gson().toJson(new Result());
+            return Json.GSON.toJson(new Result());
         } catch (DataAccessException ex) {
             if (ex.getMessage().equals("Error: unauthorized")) {
                 response.status(401);
-                return new Gson().toJson(new ErrorResult("Error: unauthorized"));
+                return Json.GSON.toJson(new ErrorResult("Error: unauthorized"));
             } else if (ex.getMessage().equals("Error: already taken")) {
                 response.status(403);
-                return new Gson().toJson(new ErrorResult("Error: already taken"));
+                return Json.GSON.toJson(new ErrorResult("Error: already taken"));
             }
             response.status(500);
-            return new Gson().toJson(new ErrorResult("Error: bad request"));
+            return Json.GSON.toJson(new ErrorResult("Error: bad request"));
         }
     }
 
@@ -1,15 +1,37 @@
 package handler;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import dataaccess.DataAccessException;
+import dataaccess.GameQuery;
+import model.GameSummary;
+import serialization.Json;
 import service.ListGamesService;
 import spark.Request;
 import spark.Response;
 import spark.Route;
-import model.GameData;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+
+/**
+ * GET /game, one page at a time. Optional query parameters:
+ * limit (default 100, at most 500), after (the nextCursor of the previous
+ * page), open=true for games with an empty seat, player=username, and
+ * status=active or status=finished.
+ * <p>
+ * Games are written to the response as the database returns them, so a page
+ * is never held in memory as a whole. The 200 has already gone out by the time
+ * a read fails part way through, so the array is closed and a message is added
+ * in place of nextCursor; clients treat a body with a message as failed.
+ */
 public class ListGamesHandler implements Route {
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 500;
+
     private final ListGamesService listGamesService;
+    private final Gson gson = Json.GSON;
+
     public ListGamesHandler(ListGamesService listGamesService) {
         this.listGamesService = listGamesService;
     }
@@ -17,26 +39,104 @@ public class ListGamesHandler implements Route {
     @Override
     public Object handle(Request request, Response response) {
         String authToken = request.headers("authorization");
+        var body = new StreamingJsonWriter(response);
 
         try {
-            GameData[] games = listGamesService.listGames(authToken);
-            response.status(200);
-            return new Gson().toJson(new ListGamesResult(games));
+            GameQuery query = parseQuery(request);
+            Integer nextCursor = listGamesService.listGames(authToken, query, game -> {
+                try {
+                    gson.toJson(game, GameSummary.class, gamesArray(body));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            var writer = gamesArray(body).endArray();
+            if (nextCursor != null) {
+                writer.name("nextCursor").value(nextCursor);
+            }
+            writer.endObject();
+            body.finish();
+            // the body has been written; an empty result tells Spark there is nothing to add
+            return "";
+        } catch (IllegalArgumentException ex) {
+            // only a bad query parameter before anything is written is the client's fault
+            if (body.started()) {
+                return endWithError(body, ex);
+            }
+            response.status(400);
+            return gson.toJson(new ErrorResult("Error: bad request"));
         } catch (DataAccessException ex) {
+            if (body.started()) {
+                return endWithError(body, ex);
+            }
             response.status(401);
-            return new Gson().toJson(new ErrorResult("Error: unauthorized"));
+            return gson.toJson(new ErrorResult("Error: unauthorized"));
+        } catch (IOException | UncheckedIOException ex) {
+            return abort(ex);
         } catch (Exception ex) {
+            if (body.started()) {
+                return endWithError(body, ex);
+            }
             response.status(500);
-            return new Gson().toJson(new ErrorResult("Error: " + ex.getMessage()));
+            return gson.toJson(new ErrorResult("Error: " + ex.getMessage()));
+        }
+    }
+
+    // the writer positioned inside the games array, opening the response on first use
+    private static JsonWriter gamesArray(StreamingJsonWriter body) throws IOException {
+        boolean opening = !body.started();
+        JsonWriter writer = body.writer();
+        if (opening) {
+            writer.beginObject().name("games").beginArray();
+        }
+        return writer;
+    }
+
+    // the status has already gone out; closes the body with a message so it can't pass for a whole page
+    private static String endWithError(StreamingJsonWriter body, Exception ex) {
+        System.err.println("Error reading game list: " + ex.getMessage());
+        try {
+            body.writer().endArray().name("message").value("Error: " + ex.getMessage()).endObject();
+            body.finish();
+        } catch (IOException | IllegalStateException e) {
+            // stopped part way through a game: the body is left unterminated, which no client can parse as a page
+            return abort(e);
         }
+        return "";
+    }
+
+    // the client is gone or the body can't be closed, so all that's left is to stop writing
+    private static String abort(Exception ex) {
+        System.err.println("Error writing game list: " + ex.getMessage());
+        return "";
     }
 
-    private static class ListGamesResult {
-        private final GameData[] games;
-        public ListGamesResult(GameData[] games) {
-            this.games = games;
+    // throws IllegalArgumentException (NumberFormatException included) for a malformed parameter
+    private static GameQuery parseQuery(Request request) {
+        int limit = intParam(request, "limit", DEFAULT_LIMIT);
+        if (limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Error: bad request");
         }
+        int after = intParam(request, "after", 0);
+        boolean openSeats = Boolean.parseBoolean(request.queryParams("open"));
+        String player = request.queryParams("player");
+        Boolean finished = null;
+        String status = request.queryParams("status");
+        if ("active".equals(status)) {
+            finished = false;
+        } else if ("finished".equals(status)) {
+            finished = true;
+        } else if (status != null) {
+            throw new IllegalArgumentException("Error: bad request");
+        }
+        return new GameQuery(after, limit, openSeats, player, finished);
+    }
+
+    private static int intParam(Request request, String name, int defaultValue) {
+        String value = request.queryParams(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
     }
+
     private static class ErrorResult {
         private String message;
         public ErrorResult(String message) {
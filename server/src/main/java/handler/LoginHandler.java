@@ -1,7 +1,9 @@
 package handler;
 import com.google.gson.Gson;
 import dataaccess.DataAccessException;
+import serialization.Json;
 import service.LoginService;
+import service.PasswordHasher;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -15,13 +17,18 @@ public class LoginHandler implements Route {
 
     @Override
     public Object handle(Request request, Response response) {
-        Gson gson = new Gson();
+        Gson gson = Json.GSON;
         LoginRequest loginRequest = gson.fromJson(request.body(), LoginRequest.class);
         try {
             AuthData authData = loginService.login(loginRequest.username, loginRequest.password);
             response.status(200);
             return gson.toJson(new LoginResult(authData.authToken(), authData.username()));
         } catch (DataAccessException ex) {
+            if (ex.getMessage().equals(PasswordHasher.BUSY)) {
+                response.status(503);
+                response.header("Retry-After", "1");
+                return gson.toJson(new ErrorResult(PasswordHasher.BUSY));
+            }
             response.status(401);
             return gson.toJson(new ErrorResult("Error: unauthorized"));
         } catch (Exception ex) {
@@ -1,5 +1,5 @@
 package handler;
-import com.google.gson.Gson;
+import serialization.Json;
 import dataaccess.DataAccessException;
 import service.LogoutService;
 import spark.Request;
@@ -20,13 +20,13 @@ public class LogoutHandler implements Route {
         try {
             logoutService.logout(authToken);
             response.status(200);
-            return new Gson().toJson(new Result());
+            return Json.GSON.toJson(new Result());
         } catch (DataAccessException ex) {
             response.status(401);
-            return new Gson().toJson(new Result("Error: unauthorized"));
+            return Json.GSON.toJson(new Result("Error: unauthorized"));
         } catch (Exception ex) {
             response.status(500);
-            return new Gson().toJson(new Result("Error: " + ex.getMessage()));
+            return Json.GSON.toJson(new Result("Error: " + ex.getMessage()));
         }
     }
     private static class Result {
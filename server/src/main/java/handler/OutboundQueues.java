@@ -0,0 +1,222 @@
+package handler;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import websocket.messages.ServerMessage.ServerMessageType;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends WebSocket messages without blocking the caller. Each session gets a
+ * bounded queue that is drained with Jetty's async send, one message in
+ * flight at a time, so a slow client only backs up its own queue.
+ * <p>
+ * When a session's queue is full the slow-consumer policy decides what
+ * happens to the new message, and the counters are logged, at most every
+ * ten seconds, so drops show up without anyone polling {@link #stats()}.
+ */
+public class OutboundQueues {
+
+    public enum SlowConsumerPolicy {
+        /** Drop the new message */
+        DROP,
+        /** Drop queued LOAD_GAME snapshots that a newer one replaces, then drop the new message if still full */
+        COALESCE,
+        /** Close the session */
+        DISCONNECT
+    }
+
+    /**
+     * A snapshot of the queues' counters
+     */
+    public record Stats(int sessions, int queued, int maxDepth, long sent, long dropped,
+                        long coalesced, long disconnected) {}
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final Map<Session, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+    private final AtomicLong lastReport = new AtomicLong(System.nanoTime() - REPORT_INTERVAL_NANOS);
+
+    public OutboundQueues(int capacity, SlowConsumerPolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Reads -Dchess.ws.queueSize and -Dchess.ws.slowConsumerPolicy, defaulting
+     * to 64 messages and COALESCE
+     */
+    public static OutboundQueues fromSystemProperties() {
+        int capacity = Integer.getInteger("chess.ws.queueSize", DEFAULT_CAPACITY);
+        var policy = SlowConsumerPolicy.valueOf(
+                System.getProperty("chess.ws.slowConsumerPolicy", SlowConsumerPolicy.COALESCE.name()));
+        return new OutboundQueues(capacity, policy);
+    }
+
+    public void send(Session session, String payload, ServerMessageType type) {
+        if (!session.isOpen()) {
+            return;
+        }
+        Outbox outbox = outboxes.computeIfAbsent(session, Outbox::new);
+        outbox.offer(new Outbound(payload, type));
+        // the session may have closed, and been removed, after the check above; don't leave its outbox behind
+        if (!session.isOpen() && outboxes.remove(session, outbox)) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * Drops anything still queued for a session that has closed
+     */
+    public void remove(Session session) {
+        Outbox outbox = outboxes.remove(session);
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    public Stats stats() {
+        int sessions = 0;
+        int queued = 0;
+        int maxDepth = 0;
+        for (Outbox outbox : outboxes.values()) {
+            int depth = outbox.depth();
+            sessions++;
+            queued += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        return new Stats(sessions, queued, maxDepth, sent.get(), dropped.get(), coalesced.get(), disconnected.get());
+    }
+
+    // logs the counters when the slow-consumer policy fires, no more than once per interval
+    private void reportSlowConsumer() {
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        if (now - last >= REPORT_INTERVAL_NANOS && lastReport.compareAndSet(last, now)) {
+            System.err.println("Slow WebSocket consumers (" + policy + "): " + stats());
+        }
+    }
+
+    private record Outbound(String payload, ServerMessageType type) {}
+
+    private class Outbox implements WriteCallback {
+        private final Session session;
+        private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+
+        Outbox(Session session) {
+            this.session = session;
+        }
+
+        void offer(Outbound message) {
+            boolean start;
+            boolean disconnect = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= capacity && !makeRoom(message)) {
+                    if (policy == SlowConsumerPolicy.DISCONNECT) {
+                        disconnect = true;
+                        closed = true;
+                        queue.clear();
+                        disconnected.incrementAndGet();
+                    } else {
+                        dropped.incrementAndGet();
+                    }
+                    start = false;
+                } else {
+                    queue.add(message);
+                    start = !sending;
+                    sending = true;
+                }
+            }
+            if (disconnect) {
+                // closing can block on the network, so it happens after other senders are let go
+                outboxes.remove(session, this);
+                session.close(StatusCode.POLICY_VIOLATION, "Client is not keeping up with messages");
+            }
+            if (start) {
+                sendNext();
+            } else {
+                reportSlowConsumer();
+            }
+        }
+
+        // only COALESCE can free up space, by dropping snapshots a newer one replaces
+        private boolean makeRoom(Outbound message) {
+            if (policy != SlowConsumerPolicy.COALESCE) {
+                return false;
+            }
+            Outbound newest = message.type() == ServerMessageType.LOAD_GAME ? message : null;
+            Iterator<Outbound> queued = queue.descendingIterator();
+            while (queued.hasNext()) {
+                Outbound candidate = queued.next();
+                if (candidate.type() != ServerMessageType.LOAD_GAME) {
+                    continue;
+                }
+                if (newest == null) {
+                    newest = candidate;
+                } else {
+                    queued.remove();
+                    coalesced.incrementAndGet();
+                }
+            }
+            return queue.size() < capacity;
+        }
+
+        private void sendNext() {
+            Outbound next;
+            synchronized (this) {
+                next = closed ? null : queue.poll();
+                if (next == null) {
+                    sending = false;
+                    return;
+                }
+            }
+            try {
+                session.getRemote().sendString(next.payload(), this);
+            } catch (RuntimeException e) {
+                writeFailed(e);
+            }
+        }
+
+        synchronized int depth() {
+            return queue.size();
+        }
+
+        synchronized void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        @Override
+        public void writeSuccess() {
+            sent.incrementAndGet();
+            sendNext();
+        }
+
+        @Override
+        public void writeFailed(Throwable error) {
+            System.err.println("Error sending message: " + error.getMessage());
+            if (!session.isOpen()) {
+                remove(session);
+            }
+            sendNext();
+        }
+    }
+}
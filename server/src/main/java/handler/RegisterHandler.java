@@ -1,6 +1,8 @@
 package handler;
 import com.google.gson.Gson;
 import dataaccess.DataAccessException;
+import serialization.Json;
+import service.PasswordHasher;
 import service.RegisterService;
 import spark.Request;
 import spark.Response;
@@ -16,7 +18,7 @@ public class RegisterHandler implements Route {
 
     @Override
     public Object handle(Request request, Response response) {
-        Gson gson = new Gson();
+        Gson gson = Json.GSON;
         RegisterRequest registerRequest = gson.fromJson(request.body(), RegisterRequest.class);
 
         try {
@@ -31,6 +33,10 @@ public class RegisterHandler implements Route {
             if (err.getMessage().equals("Error: already taken")) {
                 response.status(403);
                 return gson.toJson(new ErrorResult("Error: already taken"));
+            } else if (err.getMessage().equals(PasswordHasher.BUSY)) {
+                response.status(503);
+                response.header("Retry-After", "1");
+                return gson.toJson(new ErrorResult(PasswordHasher.BUSY));
             } else {
                 response.status(400);
                 return gson.toJson(new ErrorResult("Error: bad request"));
@@ -0,0 +1,53 @@
+package handler;
+
+import com.google.gson.stream.JsonWriter;
+import spark.Response;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a JSON response body straight to the servlet output stream as it is
+ * produced, instead of building the whole body as a String first. Nothing is
+ * sent until writer() is first called, so a handler can still answer with
+ * an ordinary error response if it fails before then.
+ * <p>
+ * Once writing has started the status is already sent; handlers check
+ * {@link #started()} before trying to report an error.
+ */
+class StreamingJsonWriter {
+    private final Response response;
+    private JsonWriter writer;
+
+    StreamingJsonWriter(Response response) {
+        this.response = response;
+    }
+
+    boolean started() {
+        return writer != null;
+    }
+
+    /**
+     * Sends the 200 status and headers if they haven't gone yet, then returns
+     * the writer for the body
+     */
+    JsonWriter writer() throws IOException {
+        if (writer == null) {
+            response.status(200);
+            response.type("application/json");
+            var out = new OutputStreamWriter(response.raw().getOutputStream(), StandardCharsets.UTF_8);
+            writer = new JsonWriter(new BufferedWriter(out));
+        }
+        return writer;
+    }
+
+    /**
+     * Flushes what is left. The stream itself stays open for Spark to finish
+     * the response.
+     */
+    void finish() throws IOException {
+        writer().flush();
+    }
+}
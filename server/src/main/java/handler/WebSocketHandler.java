@@ -3,16 +3,15 @@ package handler;
 import chess.*;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
 import model.AuthData;
 
 import model.GameData;
-import org.eclipse.jetty.util.ConcurrentHashSet;
+import model.GameStatus;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.*;
+import serialization.Json;
 import websocket.commands.MakeMoveCommand;
 import websocket.commands.UserGameCommand;
 import websocket.messages.*;
@@ -21,25 +20,47 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-@WebSocket
+// Jetty closes the session rather than buffer a frame past this size; shorter oversized ones get an ERROR reply
+@WebSocket(maxTextMessageSize = 4 * CommandDecoder.MAX_FRAME_CHARS)
 public class WebSocketHandler {
     private final Map<Session, Connection> connections;
+    // sessions connected to each game, so broadcasts only touch that game's watchers
+    private final Map<Integer, Set<Session>> gameSessions;
     private final DataAccess dataAccess;
-    private static final Gson GSON = new Gson();
-    private final Set<Integer> resignedGames = new ConcurrentHashSet<>();
+    private final GameExecutor gameExecutor;
+    private final OutboundQueues outbound;
+    private final CommandDecoder commandDecoder = new CommandDecoder();
+    private static final Gson GSON = Json.GSON;
+    // moves broadcast per game since its watchers connected. Only changed inside gameSessions.compute for
+    // the same game, and dropped with the game's last session, so it lives exactly as long as the game's
+    // entry there. A game nobody watches starts again from 0, which is what its next LOAD_GAME says.
+    private final Map<Integer, Integer> moveSequences = new ConcurrentHashMap<>();
     private static class Connection {
         public String username;
         public Integer gameID;
+        public boolean moveUpdates;
 
         public Connection(String username, Integer gameID) {
+            this(username, gameID, false);
+        }
+
+        public Connection(String username, Integer gameID, boolean moveUpdates) {
             this.username = username;
             this.gameID = gameID;
+            this.moveUpdates = moveUpdates;
         }
     }
 
     public WebSocketHandler(DataAccess dataAccess) {
+        this(dataAccess, new GameExecutor(), OutboundQueues.fromSystemProperties());
+    }
+
+    public WebSocketHandler(DataAccess dataAccess, GameExecutor gameExecutor, OutboundQueues outbound) {
         this.dataAccess = dataAccess;
+        this.gameExecutor = gameExecutor;
+        this.outbound = outbound;
         this.connections = new ConcurrentHashMap<>();
+        this.gameSessions = new ConcurrentHashMap<>();
     }
 
     @OnWebSocketConnect
@@ -53,12 +74,40 @@ public class WebSocketHandler {
 
     @OnWebSocketClose
     public void onClose(Session session, int statusCode, String reason) {
-        Connection conn = connections.remove(session);
+        Connection conn = forget(session);
         if (conn != null) {
             System.out.println("Client disconnected from websocket: " + conn.username);
         }
     }
 
+    // drops everything held for a session
+    private Connection forget(Session session) {
+        outbound.remove(session);
+        Connection conn = connections.remove(session);
+        if (conn != null) {
+            removeFromGame(conn.gameID, session);
+        }
+        return conn;
+    }
+
+    /**
+     * Stops the game executor's threads if it owns them. Commands still
+     * queued are dropped.
+     */
+    public void shutdown() {
+        gameExecutor.shutdown();
+    }
+
+    // for tests: sessions with connection state, and sessions watching a game
+    int connectionCount() {
+        return connections.size();
+    }
+
+    int watcherCount(int gameID) {
+        Set<Session> sessions = gameSessions.get(gameID);
+        return sessions == null ? 0 : sessions.size();
+    }
+
     @OnWebSocketError
     public void onError(Session session, Throwable error) {
         System.err.println("WebSocket Error: " + error.getMessage());
@@ -69,19 +118,26 @@ public class WebSocketHandler {
     public void onMessage(Session session, String message) {
         try {
             System.out.println("Received message: " + message);
-            // Create a new Gson instance that knows about MakeMoveCommand
-            Gson gson = new Gson();
-            JsonObject jsonObject = JsonParser.parseString(message).getAsJsonObject();
-
-            UserGameCommand.CommandType commandType = UserGameCommand.CommandType.valueOf(jsonObject.get("commandType").getAsString());
+            UserGameCommand command = commandDecoder.decode(message);
 
-            UserGameCommand command;
-            if (commandType == UserGameCommand.CommandType.MAKE_MOVE) {
-                command = gson.fromJson(message, MakeMoveCommand.class);
+            // Commands for the same game run one at a time, in the order they arrived
+            if (command.getGameID() == null) {
+                dispatch(session, command);
             } else {
-                command = gson.fromJson(message, UserGameCommand.class);
+                gameExecutor.submit(command.getGameID(), () -> dispatch(session, command));
             }
+        } catch (IllegalArgumentException e) {
+            // a bad frame from the client, not a server fault, so no stack trace
+            sendError(session, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error processing message: " + e.getMessage());
+            e.printStackTrace();
+            sendError(session, "Error processing command: " + e.getMessage());
+        }
+    }
 
+    private void dispatch(Session session, UserGameCommand command) {
+        try {
             switch (command.getCommandType()) {
                 case CONNECT:
                     handleConnect(session, command);
@@ -95,6 +151,9 @@ public class WebSocketHandler {
                 case RESIGN:
                     handleResign(session, command);
                     break;
+                case REQUEST_GAME:
+                    handleRequestGame(session, command);
+                    break;
             }
         } catch (Exception e) {
             System.err.println("Error processing message: " + e.getMessage());
@@ -111,12 +170,6 @@ public class WebSocketHandler {
                 return;
             }
 
-            // Check if game is already over due to resignation
-            if (resignedGames.contains(command.getGameID())) {
-                sendError(session, "Error: Game is already over");
-                return;
-            }
-
             // Get the game
             GameData gameData = dataAccess.getGame(command.getGameID());
             if (gameData == null) {
@@ -124,6 +177,11 @@ public class WebSocketHandler {
                 return;
             }
 
+            if (gameData.isOver()) {
+                sendError(session, "Error: Game is already over");
+                return;
+            }
+
             // Only players can resign
             if (!conn.username.equals(gameData.whiteUsername()) &&
                     !conn.username.equals(gameData.blackUsername())) {
@@ -131,8 +189,10 @@ public class WebSocketHandler {
                 return;
             }
 
-            // Mark game as resigned
-            resignedGames.add(command.getGameID());
+            // Mark game as resigned; the other player wins
+            ChessGame.TeamColor winner = conn.username.equals(gameData.whiteUsername())
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            dataAccess.updateGame(gameData.withResult(GameStatus.RESIGNED, winner));
             String notification = String.format("%s has resigned", conn.username);
             broadcastToAll(command.getGameID(), new NotificationMessage(notification));
 
@@ -149,41 +209,32 @@ public class WebSocketHandler {
                 return;
             }
 
-            // Get current game state
-            GameData currentGameData = dataAccess.getGame(command.getGameID());
-            if (currentGameData == null) {
-                sendError(session, "Error: Game not found");
-                return;
-            }
-            // Create new GameData, removing player that left
-            GameData updatedGameData;
-            if (conn.username.equals(currentGameData.whiteUsername())) {
-                updatedGameData = new GameData(
-                        currentGameData.gameID(),
-                        null,  // Remove white player
-                        currentGameData.blackUsername(),
-                        currentGameData.gameName(),
-                        currentGameData.game()
-                );
-            } else if (conn.username.equals(currentGameData.blackUsername())) {
-                updatedGameData = new GameData(
-                        currentGameData.gameID(),
-                        currentGameData.whiteUsername(),
-                        null,  // Remove black player
-                        currentGameData.gameName(),
-                        currentGameData.game()
-                );
-            } else {
-                // Observer leaving - no need to update game data
-                updatedGameData = currentGameData;
-            }
-
-            // Update game in database if player left (not just observer)
-            if (!updatedGameData.equals(currentGameData)) {
-                dataAccess.updateGame(updatedGameData);
+            // Free the player's seat; a join that changed the seats first means reading them again
+            while (true) {
+                GameData currentGameData = dataAccess.getGame(command.getGameID());
+                if (currentGameData == null) {
+                    sendError(session, "Error: Game not found");
+                    return;
+                }
+                // Create new GameData, removing player that left
+                GameData updatedGameData;
+                if (conn.username.equals(currentGameData.whiteUsername())) {
+                    // Remove white player
+                    updatedGameData = currentGameData.withPlayers(null, currentGameData.blackUsername());
+                } else if (conn.username.equals(currentGameData.blackUsername())) {
+                    // Remove black player
+                    updatedGameData = currentGameData.withPlayers(currentGameData.whiteUsername(), null);
+                } else {
+                    // Observer leaving - no need to update game data
+                    break;
+                }
+                if (dataAccess.replacePlayers(currentGameData, updatedGameData)) {
+                    break;
+                }
             }
 
             connections.remove(session);
+            removeFromGame(command.getGameID(), session);
             broadcastNotification(command.getGameID(), session,
                     String.format("%s left the game", conn.username));
 
@@ -192,8 +243,8 @@ public class WebSocketHandler {
         }
     }
 
-    // Break out validation into its own method
-    private void validateMoveRequest(Session session, MakeMoveCommand moveCommand, Connection conn) throws Exception {
+    // Break out validation into its own method, returns the game to move in
+    private GameData validateMoveRequest(Session session, MakeMoveCommand moveCommand, Connection conn) throws Exception {
         // Validate connection
         if (conn == null) {
             throw new Exception("Not connected to a game");
@@ -211,19 +262,13 @@ public class WebSocketHandler {
             throw new Exception("Game not found");
         }
 
-        // Check if game has been resigned
-        if (resignedGames.contains(moveCommand.getGameID())) {
+        // Check if game is over (checkmate, stalemate or resignation)
+        if (gameData.isOver()) {
             throw new Exception("Game is already over");
         }
 
         ChessGame game = gameData.game();
 
-        // Check if game is over
-        if (game.isInCheckmate(ChessGame.TeamColor.WHITE) ||
-                game.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-            throw new Exception("Game is already over");
-        }
-
         // Verify it's the player's turn
         boolean isWhiteMove = game.getTeamTurn() == ChessGame.TeamColor.WHITE;
         if ((isWhiteMove && !conn.username.equals(gameData.whiteUsername())) ||
@@ -243,27 +288,24 @@ public class WebSocketHandler {
                 (!isWhitePiece && !conn.username.equals(gameData.blackUsername()))) {
             throw new Exception("Can't move opponent's pieces");
         }
+        return gameData;
     }
 
     // Break out game state check and notifications into a method
-    private void handleGameStateNotif(ChessGame game, int gameID) {
-        if (game.isInCheckmate(ChessGame.TeamColor.WHITE)) {
-            broadcastToAll(gameID, new NotificationMessage("White is in checkmate!"));
-        } else if (game.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-            broadcastToAll(gameID, new NotificationMessage("Black is in checkmate!"));
-        } else if (game.isInCheck(ChessGame.TeamColor.WHITE)) {
-            broadcastToAll(gameID, new NotificationMessage("White is in check!"));
-        } else if (game.isInCheck(ChessGame.TeamColor.BLACK)) {
-            broadcastToAll(gameID, new NotificationMessage("Black is in check!"));
+    private void handleGameStateNotif(GameData gameData) {
+        ChessGame.TeamColor toMove = gameData.game().getTeamTurn();
+        String team = toMove == ChessGame.TeamColor.WHITE ? "White" : "Black";
+        if (gameData.status() == GameStatus.CHECKMATE) {
+            broadcastToAll(gameData.gameID(), new NotificationMessage(team + " is in checkmate!"));
+        } else if (gameData.game().isInCheck(toMove)) {
+            broadcastToAll(gameData.gameID(), new NotificationMessage(team + " is in check!"));
         }
     }
 
     private void handleMove(Session session, MakeMoveCommand moveCommand) {
         try {
             Connection conn = connections.get(session);
-            validateMoveRequest(session, moveCommand, conn);
-
-            GameData gameData = dataAccess.getGame(moveCommand.getGameID());
+            GameData gameData = validateMoveRequest(session, moveCommand, conn);
             ChessGame game = gameData.game();
 
             try {
@@ -273,19 +315,12 @@ public class WebSocketHandler {
                 return;
             }
 
-            // Update game in database
-            GameData updatedGameData = new GameData(
-                    gameData.gameID(),
-                    gameData.whiteUsername(),
-                    gameData.blackUsername(),
-                    gameData.gameName(),
-                    game
-            );
-            dataAccess.updateGame(updatedGameData);
+            // Append the move to the game's history, along with the result if it ended the game
+            GameData updatedGameData = gameData.withResultFromPosition();
+            dataAccess.recordMove(updatedGameData, moveCommand.getMove());
 
-            // Send updated game state to all clients
-            LoadGameMessage gameMessage = new LoadGameMessage(game);
-            broadcastToAll(moveCommand.getGameID(), gameMessage);
+            // Send the move to clients that track the game themselves, the whole game to the rest
+            broadcastMove(moveCommand.getGameID(), moveCommand.getMove(), game);
 
             // Notify about the move
             String moveNotification = String.format("%s moved from %s to %s",
@@ -293,7 +328,7 @@ public class WebSocketHandler {
                     formatChessPos(moveCommand.getMove().getEndPosition()));
             broadcastNotification(moveCommand.getGameID(), session, moveNotification);
 
-            handleGameStateNotif(game, moveCommand.getGameID());
+            handleGameStateNotif(updatedGameData);
 
         } catch (Exception e) {
             sendError(session, e.getMessage());
@@ -309,13 +344,70 @@ public class WebSocketHandler {
 
     // Helper method for broadcasting to all clients in a game
     private void broadcastToAll(Integer gameID, ServerMessage message) {
-        for (Map.Entry<Session, Connection> entry : connections.entrySet()) {
-            if (entry.getValue() != null && entry.getValue().gameID.equals(gameID)) {
-                sendToSession(entry.getKey(), message);
+        Set<Session> sessions = gameSessions.get(gameID);
+        if (sessions == null) {
+            return;
+        }
+        // Serialize once and send the same text to every session
+        String payload = GSON.toJson(message);
+        for (Session session : sessions) {
+            outbound.send(session, payload, message.getServerMessageType());
+        }
+    }
+
+    // Encodes each form of the update at most once, however many sessions get it
+    private void broadcastMove(Integer gameID, ChessMove move, ChessGame game) {
+        var sequence = new int[1];
+        Set<Session> sessions = gameSessions.computeIfPresent(gameID, (id, watchers) -> {
+            sequence[0] = moveSequences.merge(id, 1, Integer::sum);
+            return watchers;
+        });
+        if (sessions == null) {
+            return;
+        }
+        String movePayload = null;
+        String gamePayload = null;
+        for (Session session : sessions) {
+            Connection conn = connections.get(session);
+            if (conn != null && conn.moveUpdates) {
+                if (movePayload == null) {
+                    movePayload = GSON.toJson(new MoveMadeMessage(move, sequence[0], game.getZobristKey()));
+                }
+                outbound.send(session, movePayload, ServerMessage.ServerMessageType.MOVE_MADE);
+            } else {
+                if (gamePayload == null) {
+                    gamePayload = GSON.toJson(new LoadGameMessage(game, sequence[0]));
+                }
+                outbound.send(session, gamePayload, ServerMessage.ServerMessageType.LOAD_GAME);
             }
         }
     }
 
+    // Both index updates run inside compute so an add can't race with removing an empty set
+    private void addToGame(Integer gameID, Session session) {
+        gameSessions.compute(gameID, (id, sessions) -> {
+            if (sessions == null) {
+                sessions = ConcurrentHashMap.newKeySet();
+            }
+            sessions.add(session);
+            return sessions;
+        });
+    }
+
+    private void removeFromGame(Integer gameID, Session session) {
+        if (gameID == null) {
+            return;
+        }
+        gameSessions.computeIfPresent(gameID, (id, sessions) -> {
+            sessions.remove(session);
+            if (sessions.isEmpty()) {
+                moveSequences.remove(id);
+                return null;
+            }
+            return sessions;
+        });
+    }
+
     private void handleConnect(Session session, UserGameCommand command) {
         try {
             // First validate the auth token using getAuth
@@ -332,11 +424,23 @@ public class WebSocketHandler {
                 return;
             }
 
-            // Store connection info
-            connections.put(session, new Connection(auth.username(), command.getGameID()));
+            // Store connection info, moving the session out of any game it was in before
+            Connection previous = connections.put(session,
+                    new Connection(auth.username(), command.getGameID(), command.wantsMoveUpdates()));
+            if (previous != null && !command.getGameID().equals(previous.gameID)) {
+                removeFromGame(previous.gameID, session);
+            }
+            addToGame(command.getGameID(), session);
+            // onClose runs on Jetty's thread and may have come and gone while this CONNECT waited in the
+            // game's queue; the session is marked closed before onClose runs, so this catches it
+            if (!session.isOpen()) {
+                forget(session);
+                return;
+            }
 
             // Send game state to connecting client
-            LoadGameMessage gameMessage = new LoadGameMessage(gameData.game());
+            LoadGameMessage gameMessage = new LoadGameMessage(gameData.game(),
+                    moveSequences.getOrDefault(command.getGameID(), 0));
             sendToSession(session, gameMessage);
 
             // Determine if player or observer
@@ -353,6 +457,31 @@ public class WebSocketHandler {
         }
     }
 
+    // Resends the whole game to a client that missed a MOVE_MADE
+    private void handleRequestGame(Session session, UserGameCommand command) {
+        try {
+            Connection conn = connections.get(session);
+            if (conn == null || !command.getGameID().equals(conn.gameID)) {
+                sendError(session, "Error: Not connected to this game");
+                return;
+            }
+            AuthData auth = dataAccess.getAuth(command.getAuthToken());
+            if (auth == null || !auth.username().equals(conn.username)) {
+                sendError(session, "Error: Invalid auth token");
+                return;
+            }
+            GameData gameData = dataAccess.getGame(command.getGameID());
+            if (gameData == null) {
+                sendError(session, "Error: Game not found");
+                return;
+            }
+            sendToSession(session, new LoadGameMessage(gameData.game(),
+                    moveSequences.getOrDefault(command.getGameID(), 0)));
+        } catch (Exception e) {
+            sendError(session, "Error: " + e.getMessage());
+        }
+    }
+
     private String determineRole(GameData game, String username) {
         if (username.equals(game.whiteUsername())) {
             return "WHITE";
@@ -363,21 +492,20 @@ public class WebSocketHandler {
         return "observer";
     }
 
+    // Queues the message; it is written asynchronously after any earlier ones for the session
     private void sendToSession(Session session, ServerMessage message) {
-        try {
-            session.getRemote().sendString(GSON.toJson(message));
-        } catch (Exception e) {
-            System.err.println("Error sending message: " + e.getMessage());
-        }
+        outbound.send(session, GSON.toJson(message), message.getServerMessageType());
     }
 
     private void broadcastNotification(Integer gameID, Session excludeSession, String message) {
-        NotificationMessage notification = new NotificationMessage(message);
-        for (Map.Entry<Session, Connection> entry : connections.entrySet()) {
-            if (entry.getValue() != null &&
-                    entry.getValue().gameID.equals(gameID) &&
-                    entry.getKey() != excludeSession) {
-                sendToSession(entry.getKey(), notification);
+        Set<Session> sessions = gameSessions.get(gameID);
+        if (sessions == null) {
+            return;
+        }
+        String payload = GSON.toJson(new NotificationMessage(message));
+        for (Session session : sessions) {
+            if (session != excludeSession) {
+                outbound.send(session, payload, ServerMessage.ServerMessageType.NOTIFICATION);
             }
         }
     }
@@ -4,8 +4,10 @@ import handler.*;
 import service.*;
 import spark.*;
 
+import dataaccess.AuthCachingDataAccess;
+import dataaccess.CachingDataAccess;
 import dataaccess.DataAccess;
-//import dataaccess.MemoryDataAccess;
+import dataaccess.MemoryDataAccess;
 import dataaccess.MySqlDataAccess;
 
 public class Server {
@@ -17,19 +19,26 @@ public class Server {
     private final CreateGameHandler createGameHandler;
     private final JoinGameHandler joinGameHandler;
     private final WebSocketHandler webSocketHandler;
+    private final PasswordHasher passwordHasher;
 
 
     public Server() {
-        //DataAccess dataAccess = new MemoryDataAccess();
+        // -Dchess.inMemory=true runs a single node without MySQL
         DataAccess dataAccess;
         try {
-            dataAccess = new MySqlDataAccess();
+            DataAccess store = Boolean.getBoolean("chess.inMemory")
+                    ? new MemoryDataAccess()
+                    : new CachingDataAccess(new MySqlDataAccess());
+            // every request checks its token, whichever store is behind it
+            dataAccess = new AuthCachingDataAccess(store);
         } catch (DataAccessException e) {
             throw new RuntimeException("Unable to create MySQL Data Access: " + e.getMessage());
         }
         ClearService clearService = new ClearService(dataAccess);
-        RegisterService registerService = new RegisterService(dataAccess);
-        LoginService loginService = new LoginService(dataAccess);
+        // password hashing gets its own bounded pool so it can't starve the request threads
+        this.passwordHasher = PasswordHasher.fromSystemProperties();
+        RegisterService registerService = new RegisterService(dataAccess, passwordHasher);
+        LoginService loginService = new LoginService(dataAccess, passwordHasher);
         LogoutService logoutService = new LogoutService(dataAccess);
         ListGamesService listGamesService = new ListGamesService(dataAccess);
         CreateGameService createGameService = new CreateGameService(dataAccess);
@@ -69,6 +78,8 @@ public class Server {
     public void stop() {
         Spark.stop();
         Spark.awaitStop();
+        webSocketHandler.shutdown();
+        passwordHasher.shutdown();
     }
 
 }
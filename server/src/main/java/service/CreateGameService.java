@@ -6,24 +6,18 @@ import model.AuthData;
 import model.GameData;
 
 import javax.xml.crypto.Data;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CreateGameService {
     private final DataAccess dataAccess;
-    private static int newGameID = 1;
+    private final AtomicInteger newGameID = new AtomicInteger(1);
     public CreateGameService(DataAccess dataAccess) {
         this.dataAccess = dataAccess;
         try {
-            GameData[] games = dataAccess.listGames();
-            int maxGameID = 0;
-            for (GameData game : games) {
-                if (game.gameID() > maxGameID) {
-                    maxGameID = game.gameID();
-                }
-            }
             // Set newGameID to one more than the highest existing ID
-            newGameID = maxGameID + 1;
+            newGameID.set(dataAccess.maxGameID() + 1);
         } catch (DataAccessException e) {
-            newGameID = 1000;
+            newGameID.set(1000);
     }
     }
     public int createGame(String authToken, String gameName) throws DataAccessException {
@@ -34,7 +28,7 @@ public class CreateGameService {
         if (auth == null){
             throw new DataAccessException("Error: unauthorized");
         }
-        int gameID = newGameID++;
+        int gameID = newGameID.getAndIncrement();
         GameData game = new GameData(gameID, null, null, gameName, new ChessGame());
         dataAccess.createGame(game);
         return gameID;
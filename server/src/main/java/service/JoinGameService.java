@@ -11,32 +11,36 @@ public class JoinGameService {
         this.dataAccess = dataAccess;
     }
     public void joinGame(String authToken, ChessGame.TeamColor playerColor, int gameID) throws DataAccessException {
-        if (dataAccess.getAuth(authToken) == null) {
-            throw new DataAccessException("Error: unauthorized");
-        }
         AuthData auth = dataAccess.getAuth(authToken);
-        GameData game = dataAccess.getGame(gameID);
-        if (game == null) {
-            throw new DataAccessException("Error: bad request");
+        if (auth == null) {
+            throw new DataAccessException("Error: unauthorized");
         }
-
         String username = auth.username();
-        if (playerColor == null) {
-            return;
-        }
-        GameData updateGame;
-        if (playerColor == ChessGame.TeamColor.WHITE) {
-            if (game.whiteUsername() != null) {
-                throw new DataAccessException("Error: already taken");
+        // a seat is only taken if nobody changed the seats since they were read; if someone did, look again
+        while (true) {
+            GameData game = dataAccess.getGame(gameID);
+            if (game == null) {
+                throw new DataAccessException("Error: bad request");
             }
-            updateGame = new GameData(game.gameID(), username, game.blackUsername(), game.gameName(), game.game());
-        }
-        else {
-            if (game.blackUsername() != null) {
-                throw new DataAccessException("Error: already taken");
+            if (playerColor == null) {
+                return;
+            }
+            GameData updateGame;
+            if (playerColor == ChessGame.TeamColor.WHITE) {
+                if (game.whiteUsername() != null) {
+                    throw new DataAccessException("Error: already taken");
+                }
+                updateGame = game.withPlayers(username, game.blackUsername());
+            }
+            else {
+                if (game.blackUsername() != null) {
+                    throw new DataAccessException("Error: already taken");
+                }
+                updateGame = game.withPlayers(game.whiteUsername(), username);
+            }
+            if (dataAccess.replacePlayers(game, updateGame)) {
+                return;
             }
-            updateGame = new GameData(game.gameID(), game.whiteUsername(), username, game.gameName(), game.game());
         }
-        dataAccess.updateGame(updateGame);
     }
 }
@@ -1,8 +1,12 @@
 package service;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
+import dataaccess.GameQuery;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
+
+import java.util.function.Consumer;
 
 public class ListGamesService {
     private final DataAccess dataAccess;
@@ -10,6 +14,36 @@ public class ListGamesService {
         this.dataAccess = dataAccess;
     }
     public GameData[] listGames(String authToken) throws DataAccessException {
+        authorize(authToken);
+        return dataAccess.listGames();
+    }
+
+    /**
+     * Passes each game on the page to consumer as it is read. The token is
+     * checked before the first game is passed on.
+     *
+     * @return the afterGameID that fetches the following page, or null on the last page
+     */
+    public Integer listGames(String authToken, GameQuery query, Consumer<GameSummary> consumer)
+            throws DataAccessException {
+        authorize(authToken);
+        var passed = new int[1];
+        var lastID = new int[1];
+        var more = new boolean[1];
+        // one extra game tells us whether there is another page without a count query
+        dataAccess.listGames(query.withLimit(query.limit() + 1), game -> {
+            if (passed[0] == query.limit()) {
+                more[0] = true;
+                return;
+            }
+            consumer.accept(game);
+            passed[0]++;
+            lastID[0] = game.gameID();
+        });
+        return more[0] ? lastID[0] : null;
+    }
+
+    private void authorize(String authToken) throws DataAccessException {
         if (authToken == null) {
             throw new DataAccessException("Error: unauthorized");
         }
@@ -17,6 +51,5 @@ public class ListGamesService {
         if (auth == null) {
             throw new DataAccessException("Error: unauthorized");
         }
-        return dataAccess.listGames();
     }
 }
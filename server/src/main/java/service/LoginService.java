@@ -3,14 +3,19 @@ import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
 import model.UserData;
 import model.AuthData;
-import org.mindrot.jbcrypt.BCrypt;
 import java.util.UUID;
 
 public class LoginService {
     private final DataAccess dataAccess;
+    private final PasswordHasher passwordHasher;
 
     public LoginService(DataAccess dataAccess) {
+        this(dataAccess, PasswordHasher.defaultHasher());
+    }
+
+    public LoginService(DataAccess dataAccess, PasswordHasher passwordHasher) {
         this.dataAccess = dataAccess;
+        this.passwordHasher = passwordHasher;
     }
 
     public AuthData login(String username, String password) throws DataAccessException {
@@ -25,7 +30,7 @@ public class LoginService {
         }
 
         // And separate error for wrong password
-        if (!BCrypt.checkpw(password, user.password())) {
+        if (!passwordHasher.verify(password, user.password())) {
             throw new DataAccessException("Error: unauthorized");
         }
 
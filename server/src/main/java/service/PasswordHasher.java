@@ -0,0 +1,205 @@
+package service;
+
+import dataaccess.DataAccessException;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on its own small pool of threads, so a burst of logins or
+ * registrations only uses those threads' worth of CPU and the other
+ * endpoints keep responding. The pool's queue is bounded. When it is full,
+ * new work is refused at once with "Error: server busy" (sent as a 503)
+ * rather than waiting behind hashes that take tens to hundreds of
+ * milliseconds each.
+ * <p>
+ * Spark routes are synchronous, so the request thread still waits for its
+ * own hash. That wait is capped: work that hasn't finished within
+ * maxWaitMillis is dropped and also answered with "Error: server busy", so a
+ * backlog holds each request thread for a bounded time instead of as long
+ * as the queue takes to drain.
+ */
+public class PasswordHasher {
+
+    /**
+     * Counters for capacity planning. Queue time is how long work waited for
+     * a thread, hash time how long BCrypt itself took.
+     */
+    public record Stats(long completed, long rejected, int queued, double averageQueueMillis,
+                        double averageHashMillis, double maxHashMillis) {}
+
+    public static final String BUSY = "Error: server busy";
+
+    private static final int DEFAULT_COST = 10;
+    private static final int DEFAULT_QUEUE_SIZE = 64;
+    private static final long DEFAULT_MAX_WAIT_MILLIS = 2000;
+
+    private static PasswordHasher defaultHasher;
+
+    private final int cost;
+    private final long maxWaitMillis;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    /**
+     * @param threads how many hashes run at once
+     * @param queueSize how many more can wait before new ones are refused
+     * @param cost the BCrypt log2 work factor for new hashes; existing hashes keep the cost they were made with
+     */
+    public PasswordHasher(int threads, int queueSize, int cost) {
+        this(threads, queueSize, cost, DEFAULT_MAX_WAIT_MILLIS);
+    }
+
+    /**
+     * @param maxWaitMillis how long hash() and verify() wait, queue time included, before giving up as busy
+     */
+    public PasswordHasher(int threads, int queueSize, int cost, long maxWaitMillis) {
+        this(newPool(threads, queueSize), cost, maxWaitMillis);
+    }
+
+    // the executor must refuse work when full, as ThreadPoolExecutor's default AbortPolicy does
+    PasswordHasher(ThreadPoolExecutor executor, int cost, long maxWaitMillis) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31: " + cost);
+        }
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("maxWaitMillis must be positive: " + maxWaitMillis);
+        }
+        this.cost = cost;
+        this.maxWaitMillis = maxWaitMillis;
+        this.executor = executor;
+    }
+
+    private static ThreadPoolExecutor newPool(int threads, int queueSize) {
+        var threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    var thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Reads -Dchess.bcrypt.cost, -Dchess.bcrypt.threads,
+     * -Dchess.bcrypt.queueSize and -Dchess.bcrypt.maxWaitMillis, defaulting to
+     * cost 10, half the cores (at least one) so hashing leaves the rest for
+     * request threads, 64 queued and a 2 second wait
+     */
+    public static PasswordHasher fromSystemProperties() {
+        int cost = Integer.getInteger("chess.bcrypt.cost", DEFAULT_COST);
+        int threads = Integer.getInteger("chess.bcrypt.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int queueSize = Integer.getInteger("chess.bcrypt.queueSize", DEFAULT_QUEUE_SIZE);
+        long maxWaitMillis = Long.getLong("chess.bcrypt.maxWaitMillis", DEFAULT_MAX_WAIT_MILLIS);
+        return new PasswordHasher(threads, queueSize, cost, maxWaitMillis);
+    }
+
+    /**
+     * The hasher services use when they aren't given one, shared so they
+     * don't each start a pool
+     */
+    static synchronized PasswordHasher defaultHasher() {
+        if (defaultHasher == null) {
+            defaultHasher = fromSystemProperties();
+        }
+        return defaultHasher;
+    }
+
+    public CompletableFuture<String> hashAsync(String password) throws DataAccessException {
+        return submit(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+    }
+
+    public CompletableFuture<Boolean> verifyAsync(String password, String hash) throws DataAccessException {
+        return submit(() -> {
+            try {
+                return BCrypt.checkpw(password, hash);
+            } catch (IllegalArgumentException e) {
+                // the stored value isn't a BCrypt hash, so nothing matches it
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Hashes on the pool and waits for the result, at most maxWaitMillis
+     */
+    public String hash(String password) throws DataAccessException {
+        return await(hashAsync(password));
+    }
+
+    /**
+     * Checks a password on the pool and waits for the result, at most maxWaitMillis
+     */
+    public boolean verify(String password, String hash) throws DataAccessException {
+        return await(verifyAsync(password, hash));
+    }
+
+    /**
+     * Lets hashes already queued finish and stops the pool's threads
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public Stats stats() {
+        long done = completed.sum();
+        double perTask = done == 0 ? 0 : 1e-6 / done;
+        return new Stats(done, rejected.sum(), executor.getQueue().size(),
+                queueNanos.sum() * perTask, hashNanos.sum() * perTask, maxHashNanos.get() / 1e6);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) throws DataAccessException {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    long took = System.nanoTime() - started;
+                    queueNanos.add(started - queuedAt);
+                    hashNanos.add(took);
+                    maxHashNanos.accumulateAndGet(took, Math::max);
+                    completed.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new DataAccessException(BUSY);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws DataAccessException {
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // a task that is still queued sees the cancelled future and skips the hash
+            future.cancel(false);
+            rejected.increment();
+            throw new DataAccessException(BUSY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException(BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
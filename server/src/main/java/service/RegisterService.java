@@ -9,8 +9,13 @@ import java.util.UUID;
 
 public class RegisterService {
     private final DataAccess dataAccess;
+    private final PasswordHasher passwordHasher;
     public RegisterService(DataAccess dataAccess) {
+        this(dataAccess, PasswordHasher.defaultHasher());
+    }
+    public RegisterService(DataAccess dataAccess, PasswordHasher passwordHasher) {
         this.dataAccess = dataAccess;
+        this.passwordHasher = passwordHasher;
     }
     public AuthData register(String username, String password, String email) throws DataAccessException {
         if (username == null || password == null || email == null) {
@@ -20,7 +25,7 @@ public class RegisterService {
             throw new DataAccessException("Error: already taken");
         }
 
-        UserData user = new UserData(username, password, email);
+        UserData user = new UserData(username, passwordHasher.hash(password), email);
         dataAccess.createUser(user);
 
         String authToken = UUID.randomUUID().toString();
@@ -0,0 +1,90 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthCachingDataAccessTests {
+    private MemoryDataAccess store;
+    private AuthCachingDataAccess dataAccess;
+
+    @BeforeEach
+    void setUp() {
+        store = new MemoryDataAccess();
+        dataAccess = new AuthCachingDataAccess(store);
+    }
+
+    @Test
+    @DisplayName("Auth Cache - Hits After Create")
+    void authHitsAfterCreate() throws DataAccessException {
+        AuthData auth = new AuthData("token", "user");
+        dataAccess.createAuth(auth);
+
+        assertEquals(auth, dataAccess.getAuth("token"));
+        assertEquals(1, dataAccess.stats().hits());
+        assertEquals(0, dataAccess.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Auth Cache - Remembers Unknown Tokens")
+    void authNegativeCaching() throws DataAccessException {
+        assertNull(dataAccess.getAuth("unknown"));
+        assertNull(dataAccess.getAuth("unknown"));
+
+        assertEquals(1, dataAccess.stats().misses());
+        assertEquals(1, dataAccess.stats().hits());
+
+        AuthData auth = new AuthData("unknown", "user");
+        dataAccess.createAuth(auth);
+        assertEquals(auth, dataAccess.getAuth("unknown"));
+    }
+
+    @Test
+    @DisplayName("Auth Cache - Delete And Clear Invalidate")
+    void authInvalidation() throws DataAccessException {
+        dataAccess.createAuth(new AuthData("token", "user"));
+        dataAccess.deleteAuth("token");
+        assertNull(dataAccess.getAuth("token"));
+
+        dataAccess.createAuth(new AuthData("other", "user"));
+        dataAccess.clear();
+        assertNull(dataAccess.getAuth("other"));
+        assertEquals(1, dataAccess.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Auth Cache - Unknown Tokens Evicted First")
+    void authUnknownEvictedFirst() {
+        var cache = new AuthCache(10, 60_000, 60_000);
+        for (int i = 0; i < 5; i++) {
+            cache.put("valid" + i, new AuthData("valid" + i, "user"));
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.load("bad" + i, null);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.get("valid" + i).auth());
+        }
+        assertTrue(cache.stats().size() <= 10);
+    }
+
+    @Test
+    @DisplayName("Auth Cache - Tombstones Outlast A Flood Of Unknown Tokens")
+    void authTombstonesKept() {
+        var cache = new AuthCache(10, 60_000, 60_000);
+        AuthData auth = new AuthData("token", "user");
+        cache.put("token", auth);
+        cache.delete("token");
+        for (int i = 0; i < 100; i++) {
+            cache.load("bad" + i, null);
+        }
+
+        // a read that started before the logout finishes now, with the row it saw
+        cache.load("token", auth);
+        AuthCache.Entry entry = cache.get("token");
+        assertNotNull(entry);
+        assertNull(entry.auth());
+        assertTrue(entry.deleted());
+    }
+}
@@ -0,0 +1,129 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingDataAccessTests {
+    private MemoryDataAccess store;
+    private CachingDataAccess dataAccess;
+
+    @BeforeEach
+    void setUp() {
+        store = new MemoryDataAccess();
+        dataAccess = new CachingDataAccess(store, 2, 60_000);
+    }
+
+    @Test
+    @DisplayName("Cache - Reads Hit After Create")
+    void readsHitAfterCreate() throws DataAccessException {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        dataAccess.createGame(game);
+
+        assertEquals(game, dataAccess.getGame(1));
+        assertEquals(game, dataAccess.getGame(1));
+        assertEquals(2, dataAccess.stats().hits());
+        assertEquals(0, dataAccess.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Cache - Miss Loads From Store")
+    void missLoadsFromStore() throws DataAccessException {
+        store.createGame(new GameData(1, "white", "black", "testGame", new ChessGame()));
+
+        assertNotNull(dataAccess.getGame(1));
+        assertNotNull(dataAccess.getGame(1));
+        assertNull(dataAccess.getGame(2));
+        var stats = dataAccess.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Cache - Writes Go Through")
+    void writesGoThrough() throws DataAccessException, InvalidMoveException {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        dataAccess.createGame(game);
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        GameData current = dataAccess.getGame(1);
+        current.game().makeMove(move);
+        dataAccess.recordMove(current, move);
+
+        assertEquals(current.game(), store.getGame(1).game());
+        assertEquals(current.game(), dataAccess.getGame(1).game());
+        assertArrayEquals(new ChessMove[] {move}, store.getMoves(1));
+    }
+
+    @Test
+    @DisplayName("Cache - Reads Are Copies")
+    void readsAreCopies() throws DataAccessException, InvalidMoveException {
+        dataAccess.createGame(new GameData(1, "white", "black", "testGame", new ChessGame()));
+
+        GameData first = dataAccess.getGame(1);
+        assertNotSame(first.game(), dataAccess.getGame(1).game());
+        // a move that was never written back doesn't show to other readers
+        first.game().makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(new ChessGame(), dataAccess.getGame(1).game());
+        assertEquals(new ChessGame(), store.getGame(1).game());
+    }
+
+    @Test
+    @DisplayName("Cache - Full Cache Trims Below Its Limit")
+    void trimsBelowLimit() throws DataAccessException {
+        dataAccess = new CachingDataAccess(store, 20, 60_000);
+        for (int id = 1; id <= 20; id++) {
+            dataAccess.createGame(new GameData(id, null, null, "game" + id, new ChessGame()));
+        }
+        dataAccess.getGame(1);
+        dataAccess.createGame(new GameData(21, null, null, "game21", new ChessGame()));
+
+        // down to 18, keeping the game just read and the one just written
+        assertEquals(18, dataAccess.stats().size());
+        assertEquals(3, dataAccess.stats().evictions());
+        dataAccess.getGame(1);
+        dataAccess.getGame(21);
+        assertEquals(3, dataAccess.stats().hits());
+        assertEquals(0, dataAccess.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Cache - Failed Write Drops Game")
+    void failedWriteInvalidates() throws DataAccessException {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        dataAccess.createGame(game);
+        store.clear();
+
+        assertThrows(DataAccessException.class, () -> dataAccess.updateGame(game));
+        assertNull(dataAccess.getGame(1));
+    }
+
+    @Test
+    @DisplayName("Cache - Evicts Least Recently Used")
+    void evictsLeastRecentlyUsed() throws DataAccessException {
+        for (int id = 1; id <= 3; id++) {
+            dataAccess.createGame(new GameData(id, null, null, "game" + id, new ChessGame()));
+        }
+
+        assertEquals(2, dataAccess.stats().size());
+        assertEquals(1, dataAccess.stats().evictions());
+        dataAccess.getGame(1);
+        assertEquals(1, dataAccess.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Cache - Expires Idle Games")
+    void expiresIdleGames() throws Exception {
+        dataAccess = new CachingDataAccess(store, 10, 20);
+        dataAccess.createGame(new GameData(1, null, null, "testGame", new ChessGame()));
+        Thread.sleep(40);
+
+        assertNotNull(dataAccess.getGame(1));
+        assertEquals(1, dataAccess.stats().misses());
+    }
+}
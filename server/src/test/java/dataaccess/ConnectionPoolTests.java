@@ -0,0 +1,135 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+    private List<FakeConnection> opened;
+
+    @BeforeEach
+    void setUp() {
+        opened = new ArrayList<>();
+    }
+
+    private ConnectionPool pool(int maxSize, long connectionTimeout, long idleTimeout, long maxLifetime) {
+        return new ConnectionPool(() -> {
+            var fake = new FakeConnection();
+            opened.add(fake);
+            return fake.proxy();
+        }, new ConnectionPool.Config(maxSize, connectionTimeout, idleTimeout, maxLifetime, 1));
+    }
+
+    @Test
+    @DisplayName("Pool - Reuses Returned Connections")
+    void reusesConnections() throws SQLException {
+        try (var pool = pool(2, 1000, 60_000, 60_000)) {
+            pool.getConnection().close();
+            pool.getConnection().close();
+
+            assertEquals(1, opened.size());
+            var stats = pool.stats();
+            assertEquals(1, stats.total());
+            assertEquals(1, stats.idle());
+            assertEquals(0, stats.active());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool - Times Out When Exhausted")
+    void timesOutWhenExhausted() throws SQLException {
+        try (var pool = pool(1, 50, 60_000, 60_000)) {
+            var held = pool.getConnection();
+            assertThrows(SQLException.class, pool::getConnection);
+            assertEquals(1, pool.stats().timeouts());
+
+            held.close();
+            assertDoesNotThrow(() -> pool.getConnection().close());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool - Closed Wrapper Can't Be Used")
+    void closedWrapperRejected() throws SQLException {
+        try (var pool = pool(1, 1000, 60_000, 60_000)) {
+            var conn = pool.getConnection();
+            conn.close();
+            conn.close();
+
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, conn::createStatement);
+            assertEquals(1, pool.stats().idle());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool - Rolls Back Open Transactions")
+    void rollsBackOnReturn() throws SQLException {
+        try (var pool = pool(1, 1000, 60_000, 60_000)) {
+            var conn = pool.getConnection();
+            conn.setAutoCommit(false);
+            conn.close();
+
+            assertTrue(opened.get(0).rolledBack);
+            assertTrue(opened.get(0).autoCommit);
+        }
+    }
+
+    @Test
+    @DisplayName("Pool - Replaces Expired And Invalid Connections")
+    void replacesExpiredConnections() throws Exception {
+        try (var pool = pool(1, 1000, 60_000, 20)) {
+            pool.getConnection().close();
+            Thread.sleep(40);
+            pool.getConnection().close();
+
+            assertEquals(2, opened.size());
+            assertTrue(opened.get(0).closed);
+            assertEquals(1, pool.stats().closed());
+        }
+        try (var pool = pool(1, 1000, 60_000, 60_000)) {
+            opened.clear();
+            pool.getConnection().close();
+            opened.get(0).valid = false;
+            Thread.sleep(600);
+            pool.getConnection().close();
+
+            assertEquals(2, opened.size());
+        }
+    }
+
+    private static class FakeConnection {
+        boolean autoCommit = true;
+        boolean rolledBack;
+        boolean closed;
+        boolean valid = true;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            rolledBack = true;
+                            yield null;
+                        }
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid;
+                        default -> null;
+                    });
+        }
+    }
+}
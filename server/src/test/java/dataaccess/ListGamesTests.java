@@ -2,7 +2,13 @@ package dataaccess;
 
 import chess.ChessGame;
 import model.GameData;
+import model.GameStatus;
+import model.GameSummary;
 import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ListGamesTests {
@@ -36,4 +42,37 @@ public class ListGamesTests {
         GameData[] games = dataAccess.listGames();
         assertEquals(0, games.length);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("List Games Page - Filters")
+    void listGamesPageFilters() throws DataAccessException {
+        dataAccess.createGame(new GameData(1, "alice", "bob", "full", new ChessGame()));
+        dataAccess.createGame(new GameData(2, "alice", null, "open", new ChessGame()));
+        dataAccess.createGame(new GameData(3, null, "carol", "other", new ChessGame()));
+        dataAccess.createGame(new GameData(4, "bob", "alice", "done", new ChessGame(),
+                GameStatus.RESIGNED, ChessGame.TeamColor.WHITE));
+
+        GameSummary[] open = page(new GameQuery(0, 10, true, null, null));
+        assertArrayEquals(new int[] {2, 3}, ids(open));
+
+        GameSummary[] alice = page(new GameQuery(1, 10, false, "alice", null));
+        assertArrayEquals(new int[] {2, 4}, ids(alice));
+
+        GameSummary[] finished = page(new GameQuery(0, 10, false, null, true));
+        assertArrayEquals(new int[] {4}, ids(finished));
+        assertEquals(GameStatus.RESIGNED, finished[0].status());
+
+        GameSummary[] active = page(new GameQuery(0, 2, false, "alice", false));
+        assertArrayEquals(new int[] {1, 2}, ids(active));
+    }
+
+    private GameSummary[] page(GameQuery query) throws DataAccessException {
+        var games = new ArrayList<GameSummary>();
+        dataAccess.listGames(query, games::add);
+        return games.toArray(new GameSummary[0]);
+    }
+
+    private static int[] ids(GameSummary[] games) {
+        return Arrays.stream(games).mapToInt(GameSummary::gameID).toArray();
+    }
+}
@@ -0,0 +1,174 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import model.GameData;
+import model.GameStatus;
+import model.GameSummary;
+import model.UserData;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryDataAccessTests {
+    private static final int THREADS = 8;
+
+    private MemoryDataAccess dataAccess;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        dataAccess = new MemoryDataAccess();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // runs the task on every thread at once and waits for all of them
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<Void>>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (var future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent Create User - Only One Succeeds")
+    void concurrentCreateUser() throws Exception {
+        var created = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                dataAccess.createUser(new UserData("user", "password", "email"));
+                created.incrementAndGet();
+            } catch (DataAccessException e) {
+                // someone else got there first
+            }
+            return null;
+        });
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent Record Move - No Moves Lost")
+    void concurrentRecordMove() throws Exception {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        dataAccess.createGame(game);
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 1000; i++) {
+                dataAccess.recordMove(game, move);
+            }
+            return null;
+        });
+        assertEquals(THREADS * 1000, dataAccess.getMoves(1).length);
+    }
+
+    @Test
+    @DisplayName("Concurrent Create Game - Only One Succeeds")
+    void concurrentCreateGame() throws Exception {
+        var created = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                dataAccess.createGame(new GameData(1, null, null, "testGame", new ChessGame()));
+                created.incrementAndGet();
+            } catch (DataAccessException e) {
+                // someone else got there first
+            }
+            return null;
+        });
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent Join - One Player Per Seat")
+    void concurrentReplacePlayers() throws Exception {
+        GameData game = new GameData(1, null, null, "testGame", new ChessGame());
+        dataAccess.createGame(game);
+        var joined = new AtomicInteger();
+        runConcurrently(() -> {
+            String name = Thread.currentThread().getName();
+            if (dataAccess.replacePlayers(game, game.withPlayers(name, null))) {
+                joined.incrementAndGet();
+            }
+            return null;
+        });
+        assertEquals(1, joined.get());
+        assertNotNull(dataAccess.getGame(1).whiteUsername());
+    }
+
+    @Test
+    @DisplayName("Record Move - Keeps Seats Taken Meanwhile")
+    void recordMoveKeepsSeats() throws Exception {
+        GameData game = new GameData(1, "white", null, "testGame", new ChessGame());
+        dataAccess.createGame(game);
+        GameData moving = dataAccess.getGame(1);
+        assertTrue(dataAccess.replacePlayers(moving, moving.withPlayers("white", "black")));
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        moving.game().makeMove(move);
+        dataAccess.recordMove(moving, move);
+
+        GameData stored = dataAccess.getGame(1);
+        assertEquals("black", stored.blackUsername());
+        assertEquals(moving.game(), stored.game());
+    }
+
+    @Test
+    @DisplayName("Update Game - Negative (Non-existent)")
+    void updateMissingGame() {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        assertThrows(DataAccessException.class, () -> dataAccess.updateGame(game));
+        assertDoesNotThrow(() -> assertNull(dataAccess.getGame(1)));
+    }
+
+    @Test
+    @DisplayName("List Games Page - Filters")
+    void listGamesPageFilters() throws DataAccessException {
+        dataAccess.createGame(new GameData(1, "alice", "bob", "full", new ChessGame()));
+        dataAccess.createGame(new GameData(2, "alice", null, "open", new ChessGame()));
+        dataAccess.createGame(new GameData(3, null, "carol", "other", new ChessGame()));
+        dataAccess.createGame(new GameData(4, "bob", "alice", "done", new ChessGame(),
+                GameStatus.RESIGNED, ChessGame.TeamColor.WHITE));
+
+        GameSummary[] open = page(new GameQuery(0, 10, true, null, null));
+        assertArrayEquals(new int[] {2, 3}, ids(open));
+
+        GameSummary[] alice = page(new GameQuery(1, 10, false, "alice", null));
+        assertArrayEquals(new int[] {2, 4}, ids(alice));
+
+        GameSummary[] finished = page(new GameQuery(0, 10, false, null, true));
+        assertArrayEquals(new int[] {4}, ids(finished));
+        assertEquals(GameStatus.RESIGNED, finished[0].status());
+
+        GameSummary[] active = page(new GameQuery(0, 2, false, "alice", false));
+        assertArrayEquals(new int[] {1, 2}, ids(active));
+    }
+
+    private GameSummary[] page(GameQuery query) throws DataAccessException {
+        var games = new ArrayList<GameSummary>();
+        dataAccess.listGames(query, games::add);
+        return games.toArray(new GameSummary[0]);
+    }
+
+    private static int[] ids(GameSummary[] games) {
+        return Arrays.stream(games).mapToInt(GameSummary::gameID).toArray();
+    }
+}
@@ -0,0 +1,130 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationTests {
+
+    // a row as the original server stored it: Gson JSON of the 8x8 array board, after 1. e4 d5 2. exd5
+    private static final String LEGACY_GAME = """
+            {"board":{"squares":[
+            [{"color":"WHITE","type":"ROOK"},{"color":"WHITE","type":"KNIGHT"},{"color":"WHITE","type":"BISHOP"},{"color":"WHITE","type":"QUEEN"},{"color":"WHITE","type":"KING"},{"color":"WHITE","type":"BISHOP"},{"color":"WHITE","type":"KNIGHT"},{"color":"WHITE","type":"ROOK"}],
+            [{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},null,{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"}],
+            [null,null,null,null,null,null,null,null],
+            [null,null,null,null,null,null,null,null],
+            [null,null,null,{"color":"WHITE","type":"PAWN"},null,null,null,null],
+            [null,null,null,null,null,null,null,null],
+            [{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},null,{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"}],
+            [{"color":"BLACK","type":"ROOK"},{"color":"BLACK","type":"KNIGHT"},{"color":"BLACK","type":"BISHOP"},{"color":"BLACK","type":"QUEEN"},{"color":"BLACK","type":"KING"},{"color":"BLACK","type":"BISHOP"},{"color":"BLACK","type":"KNIGHT"},{"color":"BLACK","type":"ROOK"}]
+            ]},"currentTurn":"BLACK"}""";
+
+    private static final String EMPTY_GAME = "{\"board\":{},\"currentTurn\":\"WHITE\"}";
+
+    private static final String MALFORMED_GAME = "{\"board\":{\"squares\":[[";
+
+    @BeforeEach
+    void createLegacyTables() throws DataAccessException, SQLException {
+        DatabaseManager.createDatabase();
+        var statements = new String[] {
+                "DROP TABLE IF EXISTS game_moves",
+                "DROP TABLE IF EXISTS auth_tokens",
+                "DROP TABLE IF EXISTS games",
+                "DROP TABLE IF EXISTS users",
+                """
+                CREATE TABLE games (
+                    game_id INT NOT NULL AUTO_INCREMENT,
+                    game_name VARCHAR(255) NOT NULL,
+                    white_username VARCHAR(255),
+                    black_username VARCHAR(255),
+                    game_state TEXT NOT NULL,
+                    PRIMARY KEY (game_id)
+                )
+                """
+        };
+        try (var conn = DatabaseManager.getConnection()) {
+            for (var statement : statements) {
+                try (var ps = conn.prepareStatement(statement)) {
+                    ps.executeUpdate();
+                }
+            }
+            var insert = "INSERT INTO games (game_id, game_name, white_username, black_username, game_state) " +
+                    "VALUES (?, ?, 'white', 'black', ?)";
+            try (var ps = conn.prepareStatement(insert)) {
+                ps.setInt(1, 1);
+                ps.setString(2, "legacy");
+                ps.setString(3, LEGACY_GAME);
+                ps.addBatch();
+                ps.setInt(1, 2);
+                ps.setString(2, "empty");
+                ps.setString(3, EMPTY_GAME);
+                ps.addBatch();
+                ps.setInt(1, 3);
+                ps.setString(2, "malformed");
+                ps.setString(3, MALFORMED_GAME);
+                ps.addBatch();
+                ps.executeBatch();
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws DataAccessException {
+        new MySqlDataAccess().clear();
+    }
+
+    @Test
+    @DisplayName("Migration - Legacy JSON Keeps Its Pieces")
+    void legacyJsonKeepsPieces() throws DataAccessException, SQLException, InvalidMoveException {
+        var dataAccess = new MySqlDataAccess();
+
+        var expected = new ChessGame();
+        expected.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        expected.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        expected.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        var migrated = dataAccess.getGame(1);
+        assertEquals(expected, migrated.game());
+        assertEquals(ChessGame.TeamColor.BLACK, migrated.game().getTeamTurn());
+        assertTrue(ChessGameCodec.isEncoded(storedState(1)));
+    }
+
+    @Test
+    @DisplayName("Migration - Empty Board Left Alone")
+    void emptyBoardLeftAlone() throws DataAccessException, SQLException {
+        new MySqlDataAccess();
+        assertArrayEquals(EMPTY_GAME.getBytes(StandardCharsets.UTF_8), storedState(2));
+    }
+
+    @Test
+    @DisplayName("Migration - Malformed Row Doesn't Stop Startup")
+    void malformedRowDoesNotStopStartup() throws DataAccessException, SQLException {
+        // the status backfill decodes every row, and this one can't be decoded
+        assertDoesNotThrow(() -> new MySqlDataAccess());
+        assertArrayEquals(MALFORMED_GAME.getBytes(StandardCharsets.UTF_8), storedState(3));
+        try (var conn = DatabaseManager.getConnection();
+             var ps = conn.prepareStatement("SELECT status FROM games WHERE game_id=3");
+             var rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals("ACTIVE", rs.getString(1));
+        }
+    }
+
+    private static byte[] storedState(int gameID) throws DataAccessException, SQLException {
+        try (var conn = DatabaseManager.getConnection();
+             var ps = conn.prepareStatement("SELECT game_state FROM games WHERE game_id=?")) {
+            ps.setInt(1, gameID);
+            try (var rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getBytes(1);
+            }
+        }
+    }
+}
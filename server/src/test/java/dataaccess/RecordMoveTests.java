@@ -0,0 +1,47 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordMoveTests {
+    private static DataAccess dataAccess;
+
+    @BeforeAll
+    static void init() throws DataAccessException {
+        dataAccess = new MySqlDataAccess();
+    }
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        dataAccess.clear();
+    }
+
+    @Test
+    @DisplayName("Record Move - Positive")
+    void recordMovePositive() throws DataAccessException, InvalidMoveException {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        dataAccess.createGame(game);
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        dataAccess.recordMove(game, move);
+
+        GameData retrieved = dataAccess.getGame(1);
+        assertEquals(game.game(), retrieved.game());
+        assertArrayEquals(new ChessMove[] {move}, dataAccess.getMoves(1));
+        assertEquals(game.game(), dataAccess.listGames()[0].game());
+    }
+
+    @Test
+    @DisplayName("Record Move - Negative (Non-existent)")
+    void recordMoveNegative() {
+        GameData game = new GameData(-1, "white", "black", "testGame", new ChessGame());
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        assertThrows(DataAccessException.class, () -> dataAccess.recordMove(game, move));
+    }
+}
@@ -2,6 +2,7 @@ package dataaccess;
 
 import chess.ChessGame;
 import model.GameData;
+import model.GameStatus;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,10 +34,40 @@ public class UpdateGameTests {
         assertEquals("black", retrieved.blackUsername());
     }
 
+    @Test
+    @DisplayName("Update Game - Result Is Stored")
+    void updateGameResult() throws DataAccessException {
+        GameData game = new GameData(1, "white", "black", "testGame", new ChessGame());
+        dataAccess.createGame(game);
+
+        dataAccess.updateGame(game.withResult(GameStatus.RESIGNED, ChessGame.TeamColor.BLACK));
+
+        GameData retrieved = dataAccess.getGame(1);
+        assertEquals(GameStatus.RESIGNED, retrieved.status());
+        assertEquals(ChessGame.TeamColor.BLACK, retrieved.winner());
+        assertTrue(retrieved.isOver());
+        assertEquals(GameStatus.RESIGNED, dataAccess.listGames()[0].status());
+    }
+
     @Test
     @DisplayName("Update Game - Negative (Non-existent)")
     void updateGameNegative() {
         GameData nonExistentGame = new GameData(-1, "white", "black", "testGame", new ChessGame());
         assertThrows(DataAccessException.class, () -> dataAccess.updateGame(nonExistentGame));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Replace Players - Only While Seats Unchanged")
+    void replacePlayers() throws DataAccessException {
+        GameData game = new GameData(1, null, null, "testGame", new ChessGame());
+        dataAccess.createGame(game);
+
+        assertTrue(dataAccess.replacePlayers(game, game.withPlayers("white", null)));
+        // the seats no longer match what this caller read
+        assertFalse(dataAccess.replacePlayers(game, game.withPlayers("other", null)));
+
+        GameData retrieved = dataAccess.getGame(1);
+        assertEquals("white", retrieved.whiteUsername());
+        assertNull(retrieved.blackUsername());
+    }
+}
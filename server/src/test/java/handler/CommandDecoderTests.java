@@ -0,0 +1,76 @@
+package handler;
+
+import chess.ChessPosition;
+import org.junit.jupiter.api.*;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandDecoderTests {
+    private CommandDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CommandDecoder();
+    }
+
+    @Test
+    @DisplayName("Command Decoder - Make Move Decoded In One Pass")
+    void decodeMakeMove() {
+        String frame = "{\"gameID\":4,\"move\":{\"startPosition\":{\"row\":2,\"col\":5}," +
+                "\"endPosition\":{\"row\":4,\"col\":5}},\"authToken\":\"token\",\"commandType\":\"MAKE_MOVE\"}";
+        var command = assertInstanceOf(MakeMoveCommand.class, decoder.decode(frame));
+        assertEquals(Integer.valueOf(4), command.getGameID());
+        assertEquals(new ChessPosition(4, 5), command.getMove().getEndPosition());
+    }
+
+    @Test
+    @DisplayName("Command Decoder - Plain Command")
+    void decodeConnect() {
+        UserGameCommand command = decoder.decode(
+                "{\"commandType\":\"CONNECT\",\"authToken\":\"token\",\"gameID\":4,\"moveUpdates\":true}");
+        assertEquals(UserGameCommand.CommandType.CONNECT, command.getCommandType());
+        assertTrue(command.wantsMoveUpdates());
+    }
+
+    @Test
+    @DisplayName("Command Decoder - Rejects Bad Frames")
+    void rejectsBadFrames() {
+        String[] frames = {
+                "",
+                "[1, 2]",
+                "{\"commandType\":\"CONNECT\"",
+                "{\"authToken\":\"token\",\"gameID\":4}",
+                "{\"commandType\":\"JUMP\",\"gameID\":4}",
+                "{\"commandType\":\"CONNECT\",\"gameID\":\"four\"}",
+                "{\"commandType\":\"CONNECT\",\"gameID\":4} {}",
+                "{\"commandType\":\"MAKE_MOVE\",\"authToken\":\"token\",\"gameID\":4}",
+                "{\"commandType\":\"CONNECT\",\"authToken\":\"" + "x".repeat(CommandDecoder.MAX_FRAME_CHARS) + "\"}",
+        };
+        for (String frame : frames) {
+            assertThrows(IllegalArgumentException.class, () -> decoder.decode(frame));
+        }
+    }
+
+    @Test
+    @DisplayName("Command Decoder - Rejects Missing And Off-Board Positions")
+    void rejectsBadPositions() {
+        String prefix = "{\"commandType\":\"MAKE_MOVE\",\"authToken\":\"token\",\"gameID\":4,\"move\":";
+        var missingStart = assertThrows(IllegalArgumentException.class, () -> decoder.decode(
+                prefix + "{\"endPosition\":{\"row\":4,\"col\":5}}}"));
+        assertEquals("MAKE_MOVE is missing its startPosition", missingStart.getMessage());
+
+        var nullEnd = assertThrows(IllegalArgumentException.class, () -> decoder.decode(
+                prefix + "{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":null}}"));
+        assertEquals("MAKE_MOVE is missing its endPosition", nullEnd.getMessage());
+
+        var offBoardStart = assertThrows(IllegalArgumentException.class, () -> decoder.decode(
+                prefix + "{\"startPosition\":{\"row\":0,\"col\":5},\"endPosition\":{\"row\":4,\"col\":5}}}"));
+        assertEquals("startPosition (0, 5) is off the board", offBoardStart.getMessage());
+
+        var offBoardEnd = assertThrows(IllegalArgumentException.class, () -> decoder.decode(
+                prefix + "{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":{\"row\":4,\"col\":9}}}"));
+        assertEquals("endPosition (4, 9) is off the board", offBoardEnd.getMessage());
+    }
+}
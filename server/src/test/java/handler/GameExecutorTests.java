@@ -0,0 +1,88 @@
+package handler;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameExecutorTests {
+    private ExecutorService pool;
+    private GameExecutor gameExecutor;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+        gameExecutor = new GameExecutor(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Game Executor - Runs A Game's Tasks In Order, One At A Time")
+    void serialPerGame() throws Exception {
+        var expected = new ArrayList<Integer>();
+        var order = Collections.synchronizedList(new ArrayList<Integer>());
+        var running = new AtomicInteger();
+        var overlapped = new AtomicInteger();
+        var done = new CountDownLatch(200);
+        for (int i = 0; i < 200; i++) {
+            int task = i;
+            expected.add(task);
+            gameExecutor.submit(1, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlapped.incrementAndGet();
+                }
+                order.add(task);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlapped.get());
+        assertEquals(expected, order);
+    }
+
+    @Test
+    @DisplayName("Game Executor - Runs Different Games In Parallel")
+    void parallelAcrossGames() throws Exception {
+        var bothStarted = new CountDownLatch(2);
+        var results = Collections.synchronizedList(new ArrayList<Boolean>());
+        var done = new CountDownLatch(2);
+        for (int gameID = 1; gameID <= 2; gameID++) {
+            gameExecutor.submit(gameID, () -> {
+                bothStarted.countDown();
+                try {
+                    // only returns true if the other game is running at the same time
+                    results.add(bothStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    results.add(false);
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(true, true), results);
+    }
+
+    @Test
+    @DisplayName("Game Executor - Keeps Going After A Task Throws")
+    void survivesFailingTask() throws Exception {
+        var done = new CountDownLatch(1);
+        gameExecutor.submit(1, () -> {
+            throw new IllegalStateException("boom");
+        });
+        gameExecutor.submit(1, done::countDown);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+}
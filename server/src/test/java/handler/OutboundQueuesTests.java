@@ -0,0 +1,156 @@
+package handler;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static handler.OutboundQueues.SlowConsumerPolicy.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static websocket.messages.ServerMessage.ServerMessageType.*;
+
+public class OutboundQueuesTests {
+
+    // a session whose writes only complete when the test says so
+    private static class SlowSession {
+        final List<String> written = new ArrayList<>();
+        final List<WriteCallback> pending = new ArrayList<>();
+        boolean closed;
+
+        Session session() {
+            RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                    new Class<?>[] {RemoteEndpoint.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("sendString") && args.length == 2) {
+                            written.add((String) args[0]);
+                            pending.add((WriteCallback) args[1]);
+                        }
+                        return null;
+                    });
+            return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(),
+                    new Class<?>[] {Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "getRemote" -> remote;
+                        case "isOpen" -> !closed;
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+
+        void completeWrites() {
+            while (!pending.isEmpty()) {
+                pending.remove(0).writeSuccess();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Outbound - One Write In Flight, Rest Sent In Order")
+    void sendsInOrder() {
+        var queues = new OutboundQueues(8, DROP);
+        var slow = new SlowSession();
+        var session = slow.session();
+        queues.send(session, "a", NOTIFICATION);
+        queues.send(session, "b", NOTIFICATION);
+        queues.send(session, "c", NOTIFICATION);
+
+        assertEquals(List.of("a"), slow.written);
+        assertEquals(2, queues.stats().queued());
+
+        slow.completeWrites();
+        assertEquals(List.of("a", "b", "c"), slow.written);
+        assertEquals(3, queues.stats().sent());
+        assertEquals(0, queues.stats().queued());
+    }
+
+    @Test
+    @DisplayName("Outbound - Drop Policy Drops New Messages When Full")
+    void dropPolicy() {
+        var queues = new OutboundQueues(2, DROP);
+        var slow = new SlowSession();
+        var session = slow.session();
+        for (String payload : List.of("a", "b", "c", "d")) {
+            queues.send(session, payload, NOTIFICATION);
+        }
+
+        assertEquals(1, queues.stats().dropped());
+        slow.completeWrites();
+        assertEquals(List.of("a", "b", "c"), slow.written);
+    }
+
+    @Test
+    @DisplayName("Outbound - Coalesce Policy Keeps Only The Newest Snapshot")
+    void coalescePolicy() {
+        var queues = new OutboundQueues(2, COALESCE);
+        var slow = new SlowSession();
+        var session = slow.session();
+        queues.send(session, "in flight", NOTIFICATION);
+        queues.send(session, "game 1", LOAD_GAME);
+        queues.send(session, "note", NOTIFICATION);
+        queues.send(session, "game 2", LOAD_GAME);
+
+        assertEquals(1, queues.stats().coalesced());
+        assertEquals(0, queues.stats().dropped());
+        slow.completeWrites();
+        assertEquals(List.of("in flight", "note", "game 2"), slow.written);
+    }
+
+    @Test
+    @DisplayName("Outbound - Disconnect Policy Closes Slow Sessions")
+    void disconnectPolicy() {
+        var queues = new OutboundQueues(1, DISCONNECT);
+        var slow = new SlowSession();
+        var session = slow.session();
+        queues.send(session, "a", NOTIFICATION);
+        queues.send(session, "b", NOTIFICATION);
+        queues.send(session, "c", NOTIFICATION);
+
+        assertTrue(slow.closed);
+        assertEquals(1, queues.stats().disconnected());
+        assertEquals(0, queues.stats().sessions());
+    }
+
+    @Test
+    @DisplayName("Outbound - Nothing Kept For A Closed Session")
+    void closedSessionGetsNoOutbox() {
+        var queues = new OutboundQueues(8, DROP);
+        var slow = new SlowSession();
+        var session = slow.session();
+        queues.send(session, "a", NOTIFICATION);
+
+        // a broadcast that was already under way when the session closed
+        slow.closed = true;
+        queues.remove(session);
+        queues.send(session, "b", NOTIFICATION);
+
+        assertEquals(0, queues.stats().sessions());
+        assertEquals(List.of("a"), slow.written);
+    }
+
+    @Test
+    @DisplayName("Outbound - Max Depth Tracks The Slowest Session")
+    void maxDepth() {
+        var queues = new OutboundQueues(8, DROP);
+        var fast = new SlowSession();
+        var slow = new SlowSession();
+        var fastSession = fast.session();
+        var slowSession = slow.session();
+        for (int i = 0; i < 4; i++) {
+            queues.send(fastSession, "m" + i, NOTIFICATION);
+            fast.completeWrites();
+            queues.send(slowSession, "m" + i, NOTIFICATION);
+        }
+
+        assertEquals(2, queues.stats().sessions());
+        assertEquals(3, queues.stats().maxDepth());
+        queues.remove(slowSession);
+        assertEquals(0, queues.stats().queued());
+    }
+}
@@ -0,0 +1,148 @@
+package handler;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryDataAccess;
+import model.AuthData;
+import model.GameData;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.*;
+import serialization.Json;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebSocketHandlerTests {
+    private MemoryDataAccess dataAccess;
+    // game tasks wait here until the test runs them, standing in for a busy executor
+    private final List<Runnable> queued = new ArrayList<>();
+    private WebSocketHandler handler;
+
+    // a session whose writes complete at once
+    private static class FakeSession {
+        final List<String> written = new ArrayList<>();
+        boolean closed;
+
+        Session session() {
+            RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                    new Class<?>[] {RemoteEndpoint.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("sendString") && args.length == 2) {
+                            written.add((String) args[0]);
+                            ((WriteCallback) args[1]).writeSuccess();
+                        }
+                        return null;
+                    });
+            return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(),
+                    new Class<?>[] {Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "getRemote" -> remote;
+                        case "isOpen" -> !closed;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        dataAccess = new MemoryDataAccess();
+        dataAccess.createAuth(new AuthData("token", "white"));
+        dataAccess.createGame(new GameData(1, "white", null, "testGame", new ChessGame()));
+        handler = new WebSocketHandler(dataAccess, new GameExecutor(queued::add),
+                new OutboundQueues(16, OutboundQueues.SlowConsumerPolicy.COALESCE));
+    }
+
+    private void runQueued() {
+        while (!queued.isEmpty()) {
+            queued.remove(0).run();
+        }
+    }
+
+    private static String connect() {
+        return Json.GSON.toJson(new UserGameCommand(UserGameCommand.CommandType.CONNECT, "token", 1));
+    }
+
+    @Test
+    @DisplayName("WebSocket - Close Before A Queued Connect Runs")
+    void closeBeforeQueuedConnect() {
+        var fake = new FakeSession();
+        Session session = fake.session();
+        handler.onConnect(session);
+        handler.onMessage(session, connect());
+
+        // the client goes away while its CONNECT is still waiting for the game's thread
+        fake.closed = true;
+        handler.onClose(session, 1001, "gone");
+        runQueued();
+
+        assertEquals(0, handler.connectionCount());
+        assertEquals(0, handler.watcherCount(1));
+        assertTrue(fake.written.isEmpty());
+    }
+
+    @Test
+    @DisplayName("WebSocket - Connect Then Close")
+    void connectThenClose() {
+        var fake = new FakeSession();
+        Session session = fake.session();
+        handler.onConnect(session);
+        handler.onMessage(session, connect());
+        runQueued();
+
+        assertEquals(1, handler.watcherCount(1));
+        assertEquals(1, fake.written.size());
+
+        fake.closed = true;
+        handler.onClose(session, 1000, "done");
+        assertEquals(0, handler.connectionCount());
+        assertEquals(0, handler.watcherCount(1));
+    }
+
+    @Test
+    @DisplayName("WebSocket - Move Sequence Dropped With The Last Watcher")
+    void moveSequenceDroppedWithLastWatcher() {
+        var white = new FakeSession();
+        Session whiteSession = white.session();
+        handler.onConnect(whiteSession);
+        handler.onMessage(whiteSession, connect());
+        var move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        handler.onMessage(whiteSession, Json.GSON.toJson(new MakeMoveCommand("token", 1, move)));
+        runQueued();
+        assertEquals(1, (int) lastLoadGame(white).getSequence());
+
+        white.closed = true;
+        handler.onClose(whiteSession, 1000, "done");
+
+        // nobody kept the old count, so the next watcher starts from a fresh LOAD_GAME at 0
+        var observer = new FakeSession();
+        Session observerSession = observer.session();
+        handler.onConnect(observerSession);
+        handler.onMessage(observerSession, connect());
+        runQueued();
+        LoadGameMessage loaded = lastLoadGame(observer);
+        assertEquals(0, (int) loaded.getSequence());
+        assertEquals(ChessGame.TeamColor.BLACK, loaded.getGame().getTeamTurn());
+    }
+
+    private static LoadGameMessage lastLoadGame(FakeSession fake) {
+        LoadGameMessage last = null;
+        for (String payload : fake.written) {
+            if (Json.GSON.fromJson(payload, ServerMessage.class) instanceof LoadGameMessage loadGame) {
+                last = loadGame;
+            }
+        }
+        assertNotNull(last);
+        return last;
+    }
+}
@@ -1,5 +1,6 @@
 package service;
 
+import chess.ChessGame;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
 import dataaccess.MemoryDataAccess;
@@ -7,6 +8,12 @@ import model.AuthData;
 import model.GameData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -62,4 +69,33 @@ class CreateGameServiceTest {
         assertNotNull(dataAccess.getGame(gameID1));
         assertNotNull(dataAccess.getGame(gameID2));
     }
+
+    @Test
+    void continuesAfterHighestId() throws DataAccessException {
+        dataAccess.createGame(new GameData(41, null, null, "Old Game", new ChessGame()));
+        var restarted = new CreateGameService(dataAccess);
+        assertEquals(42, restarted.createGame(existAuthToken, "New Game"));
+    }
+
+    @Test
+    void concurrentCreatesGetDistinctIds() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 200; i++) {
+                String gameName = "Game " + i;
+                futures.add(executor.submit(() -> createGameService.createGame(existAuthToken, gameName)));
+            }
+            var gameIDs = new HashSet<Integer>();
+            for (var future : futures) {
+                gameIDs.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(200, gameIDs.size());
+            for (int gameID : gameIDs) {
+                assertNotNull(dataAccess.getGame(gameID));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
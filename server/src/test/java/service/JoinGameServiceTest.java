@@ -9,6 +9,10 @@ import model.GameData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -75,5 +79,39 @@ class JoinGameServiceTest {
                 () -> joinGameService.joinGame(authToken2, ChessGame.TeamColor.WHITE, existGameID));
         assertEquals("Error: already taken", exception.getMessage());
     }
-}
 
+    @Test
+    void concurrentJoinsTakeEachSeatOnce() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            dataAccess.createAuth(new AuthData("token" + i, "user" + i));
+        }
+        var start = new CountDownLatch(1);
+        var joined = new AtomicInteger();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            String token = "token" + i;
+            ChessGame.TeamColor color = i % 2 == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            var thread = new Thread(() -> {
+                try {
+                    start.await();
+                    joinGameService.joinGame(token, color, existGameID);
+                    joined.incrementAndGet();
+                } catch (DataAccessException | InterruptedException e) {
+                    // the seat was already taken
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        // one white and one black join win, and neither overwrote the other
+        assertEquals(2, joined.get());
+        GameData game = dataAccess.getGame(existGameID);
+        assertNotNull(game.whiteUsername());
+        assertNotNull(game.blackUsername());
+    }
+}
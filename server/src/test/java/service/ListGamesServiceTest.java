@@ -2,11 +2,16 @@ package service;
 
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
+import dataaccess.GameQuery;
 import dataaccess.MemoryDataAccess;
+import chess.ChessGame;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -47,4 +52,31 @@ class ListGamesServiceTest {
         assertEquals("Error: unauthorized", exception.getMessage());
     }
 
+    @Test
+    void pagesFollowCursor() throws DataAccessException {
+        for (int id = 1; id <= 5; id++) {
+            dataAccess.createGame(new GameData(id, null, null, "game" + id, new ChessGame()));
+        }
+        var first = new ArrayList<GameSummary>();
+        Integer nextCursor = listGamesService.listGames(existAuthToken, GameQuery.firstPage(2), first::add);
+        assertEquals(2, first.size());
+        assertEquals(Integer.valueOf(2), nextCursor);
+
+        var last = new ArrayList<GameSummary>();
+        GameQuery rest = new GameQuery(nextCursor, 3, false, null, null);
+        assertNull(listGamesService.listGames(existAuthToken, rest, last::add));
+        assertEquals(3, last.size());
+        assertEquals(5, last.get(2).gameID());
+    }
+
+    @Test
+    void pageInvalidAuthToken() throws DataAccessException {
+        dataAccess.createGame(new GameData(1, null, null, "game1", new ChessGame()));
+        var games = new ArrayList<GameSummary>();
+        DataAccessException exception = assertThrows(DataAccessException.class,
+                () -> listGamesService.listGames("badAuthToken", GameQuery.firstPage(10), games::add));
+        assertEquals("Error: unauthorized", exception.getMessage());
+        // the token is checked before anything is streamed
+        assertTrue(games.isEmpty());
+    }
 }
@@ -11,11 +11,14 @@ import static org.junit.jupiter.api.Assertions.*;
 class LoginServiceTest {
     private LoginService loginService;
     private DataAccess dataAccess;
+    private PasswordHasher passwordHasher;
 
     @BeforeEach
     void setUp() {
         dataAccess = new MemoryDataAccess();
-        loginService = new LoginService(dataAccess);
+        // the lowest cost keeps the tests fast
+        passwordHasher = new PasswordHasher(1, 8, 4);
+        loginService = new LoginService(dataAccess, passwordHasher);
     }
 
     @Test
@@ -23,7 +26,7 @@ class LoginServiceTest {
         String username = "testUser";
         String password = "testPassword";
         String email = "test@example.com";
-        dataAccess.createUser(new UserData(username, password, email));
+        dataAccess.createUser(new UserData(username, passwordHasher.hash(password), email));
         AuthData result = loginService.login(username, password);
         assertNotNull(result);
         assertEquals(username, result.username());
@@ -43,7 +46,7 @@ class LoginServiceTest {
         String correctPassword = "correctPassword";
         String wrongPassword = "wrongPassword";
         String email = "test@example.com";
-        dataAccess.createUser(new UserData(username, correctPassword, email));
+        dataAccess.createUser(new UserData(username, passwordHasher.hash(correctPassword), email));
         assertThrows(DataAccessException.class, () -> loginService.login(username, wrongPassword));
     }
 
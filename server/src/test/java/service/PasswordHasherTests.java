@@ -0,0 +1,91 @@
+package service;
+
+import dataaccess.DataAccessException;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTests {
+
+    @Test
+    @DisplayName("Password Hasher - Hash Then Verify")
+    void hashAndVerify() throws DataAccessException {
+        var hasher = new PasswordHasher(1, 8, 4);
+        String hash = hasher.hash("secret");
+        assertNotEquals("secret", hash);
+        assertTrue(hasher.verify("secret", hash));
+        assertFalse(hasher.verify("wrong", hash));
+        assertEquals(3, hasher.stats().completed());
+    }
+
+    @Test
+    @DisplayName("Password Hasher - A Stored Value That Isn't A Hash Matches Nothing")
+    void verifyNonHash() throws DataAccessException {
+        var hasher = new PasswordHasher(1, 8, 4);
+        assertFalse(hasher.verify("secret", "secret"));
+    }
+
+    @Test
+    @DisplayName("Password Hasher - Refuses Work When The Queue Is Full")
+    void rejectsWhenFull() throws Exception {
+        var pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        var release = new CountDownLatch(1);
+        try {
+            var hasher = new PasswordHasher(pool, 4, 10_000);
+            // one task holds the only thread and another fills the queue
+            pool.execute(() -> awaitQuietly(release));
+            CompletableFuture<String> queued = hasher.hashAsync("queued");
+
+            DataAccessException ex = assertThrows(DataAccessException.class, () -> hasher.hashAsync("rejected"));
+            assertEquals(PasswordHasher.BUSY, ex.getMessage());
+            assertEquals(1, hasher.stats().rejected());
+
+            release.countDown();
+            assertTrue(hasher.verify("queued", queued.get(10, TimeUnit.SECONDS)));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Password Hasher - Gives Up Waiting Behind A Backlog")
+    void givesUpWaiting() throws Exception {
+        var pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(4));
+        var release = new CountDownLatch(1);
+        try {
+            var hasher = new PasswordHasher(pool, 4, 50);
+            pool.execute(() -> awaitQuietly(release));
+
+            // the only thread is busy, so the request stops waiting instead of holding its thread
+            DataAccessException ex = assertThrows(DataAccessException.class, () -> hasher.hash("waiting"));
+            assertEquals(PasswordHasher.BUSY, ex.getMessage());
+            assertEquals(1, hasher.stats().rejected());
+
+            // the abandoned hash is skipped once the thread frees up
+            release.countDown();
+            hasher.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(0, hasher.stats().completed());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Password Hasher - Rejects An Invalid Cost")
+    void invalidCost() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(1, 1, 3));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package chess;
+
+/**
+ * Precomputed attack tables for the pieces whose reach doesn't depend on
+ * what else is on the board (knights, kings and pawns), plus ray scans for
+ * sliding pieces. Squares use the same 0-63 indexes as {@link ChessBoard}.
+ */
+final class Attacks {
+    static final long[] KNIGHT = new long[64];
+    static final long[] KING = new long[64];
+    // PAWN[color][square] = squares a pawn of that color on square attacks
+    static final long[][] PAWN = new long[2][64];
+
+    static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final int[][] KNIGHT_OFFSETS = {
+            {-1, 2}, {-1, -2}, {1, 2}, {1, -2}, {-2, 1}, {2, -1}, {2, 1}, {-2, -1}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {-1, -1}, {-1, 0}, {-1, 1}, {1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 1}
+    };
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = ChessBoard.squareRow(square);
+            int col = ChessBoard.squareColumn(square);
+            KNIGHT[square] = offsetMask(row, col, KNIGHT_OFFSETS);
+            KING[square] = offsetMask(row, col, KING_OFFSETS);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = offsetMask(row, col, new int[][] {{1, -1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = offsetMask(row, col, new int[][] {{-1, -1}, {-1, 1}});
+        }
+    }
+
+    private Attacks() {
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square
+     *
+     * @param board the board to look at
+     * @param square the square being attacked (0-63)
+     * @param byColor the attacking team
+     * @return True if a piece of byColor could capture on the square
+     */
+    static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor byColor) {
+        if ((KNIGHT[square] & board.getBitboard(byColor, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((KING[square] & board.getBitboard(byColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        // a pawn attacks this square from wherever a defending pawn here would attack
+        int defender = 1 - byColor.ordinal();
+        if ((PAWN[defender][square] & board.getBitboard(byColor, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        long queens = board.getBitboard(byColor, ChessPiece.PieceType.QUEEN);
+        long rooks = board.getBitboard(byColor, ChessPiece.PieceType.ROOK) | queens;
+        long bishops = board.getBitboard(byColor, ChessPiece.PieceType.BISHOP) | queens;
+        long occupied = board.getOccupancy();
+        return (rooks != 0 && rayHits(square, ROOK_DIRECTIONS, rooks, occupied))
+                || (bishops != 0 && rayHits(square, BISHOP_DIRECTIONS, bishops, occupied));
+    }
+
+    // walks outward from the square and reports whether the first piece hit is a slider
+    private static boolean rayHits(int square, int[][] directions, long sliders, long occupied) {
+        int startRow = ChessBoard.squareRow(square);
+        int startCol = ChessBoard.squareColumn(square);
+        for (int[] direction : directions) {
+            int row = startRow + direction[0];
+            int col = startCol + direction[1];
+            while (ChessBoard.isOnBoard(row, col)) {
+                long bit = 1L << ChessBoard.squareIndex(row, col);
+                if ((occupied & bit) != 0) {
+                    if ((sliders & bit) != 0) {
+                        return true;
+                    }
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return false;
+    }
+
+    private static long offsetMask(int row, int col, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            int newRow = row + offset[0];
+            int newCol = col + offset[1];
+            if (ChessBoard.isOnBoard(newRow, newCol)) {
+                mask |= 1L << ChessBoard.squareIndex(newRow, newCol);
+            }
+        }
+        return mask;
+    }
+}
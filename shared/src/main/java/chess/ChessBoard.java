@@ -1,16 +1,46 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Internally the board is stored as twelve 64-bit bitboards, one per
+ * color/piece type, plus an occupancy mask for each color. Square indexes
+ * run from 0 (row 1, column 1) to 63 (row 8, column 8).
  */
 public class ChessBoard {
-    private ChessPiece[][] squares = new ChessPiece[8][8];
+    // index = color * 6 + piece type ordinal
+    private long[] pieces = new long[12];
+    private long[] colorOccupancy = new long[2];
+
+    // Zobrist key of the pieces, kept up to date by setSquare/clearSquare and never
+    // computed lazily, so reading it doesn't write. It isn't serialized; the JSON and
+    // binary readers place pieces with setSquare, which builds it as they go.
+    private transient long zobristKey;
+
+    // undo record layout: from (6 bits), to (6 bits), moved + 1 (4 bits), captured + 1 (4 bits)
+    static final int UNDO_TO_SHIFT = 6;
+    static final int UNDO_MOVED_SHIFT = 12;
+    static final int UNDO_CAPTURED_SHIFT = 16;
+    static final int UNDO_SQUARE_MASK = 0x3F;
+    static final int UNDO_PIECE_MASK = 0xF;
+    static final int UNDO_BITS = 20;
+
+    // pieces are immutable, so every square shares one instance per color/type
+    private static final ChessPiece[] PIECE_TABLE = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                PIECE_TABLE[pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     public ChessBoard() {
     }
 
@@ -19,11 +49,18 @@ public class ChessBoard {
      *
      * @param position where to add the piece to
      * @param piece the piece to add
+     * @throws IllegalArgumentException if the position is off the board
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-//        throw new RuntimeException("Not implemented");
+        if (!isOnBoard(position)) {
+            throw new IllegalArgumentException("Position is off the board");
+        }
         // need to subtract 1 from row and column (indexed 0-7)
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = squareIndex(position.getRow(), position.getColumn());
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -31,12 +68,29 @@ public class ChessBoard {
      *
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that
-     * position
+     * position. Positions off the board hold no piece.
      */
     public ChessPiece getPiece(ChessPosition position) {
-//        throw new RuntimeException("Not implemented");
+        if (!isOnBoard(position)) {
+            return null;
+        }
         // need to subtract 1 from row and column (indexed 0-7)
-       return squares[position.getRow() - 1][position.getColumn() - 1];
+        int index = pieceIndexAt(squareIndex(position.getRow(), position.getColumn()));
+        return index < 0 ? null : PIECE_TABLE[index];
+    }
+
+    /**
+     * Gets a chess piece by square index (0-63)
+     *
+     * @return the piece on the square, or null if the square is empty
+     * @throws IllegalArgumentException if the index is outside 0-63
+     */
+    public ChessPiece getPiece(int square) {
+        if (square < 0 || square >= 64) {
+            throw new IllegalArgumentException("Square is off the board: " + square);
+        }
+        int index = pieceIndexAt(square);
+        return index < 0 ? null : PIECE_TABLE[index];
     }
 
     /**
@@ -44,41 +98,228 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-//      throw new RuntimeException("Not implemented");
-        squares = new ChessPiece[8][8];
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(2, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        zobristKey = 0L;
+        ChessPiece.PieceType[] backRank = {
+                ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
+        };
+        for (int col = 1; col <= 8; col++) {
+            setSquare(squareIndex(1, col), pieceIndex(ChessGame.TeamColor.WHITE, backRank[col - 1]));
+            setSquare(squareIndex(2, col), pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setSquare(squareIndex(7, col), pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            setSquare(squareIndex(8, col), pieceIndex(ChessGame.TeamColor.BLACK, backRank[col - 1]));
+        }
+    }
+
+    /**
+     * @return bitboard of every piece of the given color and type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square occupied by the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupancy() {
+        return colorOccupancy[0] | colorOccupancy[1];
+    }
+
+    /**
+     * Finds the king of the given color. The king bitboard is updated on
+     * every addPiece and makeMove, so this is a single bit scan.
+     *
+     * @return square index of the king, or -1 if that color has no king
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        long king = pieces[pieceIndex(color, ChessPiece.PieceType.KING)];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square
+     *
+     * @param square the square to test (0-63)
+     * @param byColor the attacking team
+     * @return True if a piece of byColor could capture on the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return Attacks.isSquareAttacked(this, square, byColor);
+    }
+
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        if (!isOnBoard(position)) {
+            throw new IllegalArgumentException("Position is off the board");
+        }
+        return isSquareAttacked(squareIndex(position.getRow(), position.getColumn()), byColor);
+    }
+
+    /**
+     * Moves a piece in place without checking legality. The returned undo
+     * record packs the start and end squares, the piece that moved and the
+     * piece that was captured, so {@link #unmakeMove(int)} can restore the
+     * board exactly, including undoing a promotion.
+     *
+     * @param move the move to play
+     * @return undo record for this move
+     * @throws IllegalArgumentException if either position is off the board
+     */
+    public int makeMove(ChessMove move) {
+        if (!isOnBoard(move.getStartPosition()) || !isOnBoard(move.getEndPosition())) {
+            throw new IllegalArgumentException("Move leaves the board");
+        }
+        int from = squareIndex(move.getStartPosition().getRow(), move.getStartPosition().getColumn());
+        int to = squareIndex(move.getEndPosition().getRow(), move.getEndPosition().getColumn());
+        return makeMove(from, to, move.getPromotionPiece());
+    }
+
+    /**
+     * Same as {@link #makeMove(ChessMove)} for a move packed by {@link MoveBuffer}
+     *
+     * @param move the packed move to play
+     * @return undo record for this move
+     */
+    public int makeMove(int move) {
+        return makeMove(MoveBuffer.from(move), MoveBuffer.to(move), MoveBuffer.promotion(move));
+    }
+
+    private int makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        int moved = pieceIndexAt(from);
+        int captured = pieceIndexAt(to);
+        int placed = moved;
+        if (promotion != null && moved >= 0) {
+            placed = (moved / 6) * 6 + promotion.ordinal();
+        }
+        if (moved >= 0) {
+            clearSquare(from);
+            clearSquare(to);
+            setSquare(to, placed);
+        }
+        return from
+                | to << UNDO_TO_SHIFT
+                | (moved + 1) << UNDO_MOVED_SHIFT
+                | (captured + 1) << UNDO_CAPTURED_SHIFT;
+    }
+
+    /**
+     * Reverts a move made with {@link #makeMove(ChessMove)}. Moves must be
+     * unmade in the reverse order they were made.
+     *
+     * @param undo the record returned by makeMove
+     */
+    public void unmakeMove(int undo) {
+        int from = undo & UNDO_SQUARE_MASK;
+        int to = (undo >>> UNDO_TO_SHIFT) & UNDO_SQUARE_MASK;
+        int moved = ((undo >>> UNDO_MOVED_SHIFT) & UNDO_PIECE_MASK) - 1;
+        int captured = ((undo >>> UNDO_CAPTURED_SHIFT) & UNDO_PIECE_MASK) - 1;
+        if (moved < 0) {
+            return;
+        }
+        clearSquare(to);
+        setSquare(from, moved);
+        if (captured >= 0) {
+            setSquare(to, captured);
+        }
+    }
+
+    /**
+     * Copies every piece from another board onto this one
+     */
+    public void copyFrom(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+        zobristKey = other.zobristKey;
+    }
+
+    /**
+     * Gets the 64-bit Zobrist key of the piece placement. Boards with the
+     * same pieces on the same squares always have the same key. The key is
+     * kept as pieces are placed, so it is only right for boards built
+     * through this class or read with Json.GSON or ChessGameCodec, not ones
+     * filled in by reflection.
+     *
+     * @return the board's Zobrist key
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return True if row and column are both between 1 and 8
+     */
+    public static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    public static boolean isOnBoard(ChessPosition position) {
+        return position != null && isOnBoard(position.getRow(), position.getColumn());
+    }
+
+    // callers must check isOnBoard first; off-board rows and columns alias onto real squares
+    public static int squareIndex(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    public static int squareRow(int square) {
+        return (square >> 3) + 1;
+    }
+
+    public static int squareColumn(int square) {
+        return (square & 7) + 1;
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static ChessPiece pieceForIndex(int index) {
+        return PIECE_TABLE[index];
+    }
+
+    // helper function, returns -1 for an empty square
+    int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        int start;
+        if ((colorOccupancy[0] & bit) != 0) {
+            start = 0;
+        } else if ((colorOccupancy[1] & bit) != 0) {
+            start = 6;
+        } else {
+            return -1;
+        }
+        for (int i = start; i < start + 6; i++) {
+            if ((pieces[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void setSquare(int square, int index) {
+        long bit = 1L << square;
+        pieces[index] |= bit;
+        colorOccupancy[index / 6] |= bit;
+        zobristKey ^= Zobrist.PIECE_SQUARE[index][square];
+    }
+
+    void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index >= 0) {
+            long bit = 1L << square;
+            pieces[index] &= ~bit;
+            colorOccupancy[index / 6] &= ~bit;
+            zobristKey ^= Zobrist.PIECE_SQUARE[index][square];
+        }
     }
 
     @Override
@@ -90,12 +331,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        // from the pieces rather than the key, so it agrees with equals however the board was built
+        return Arrays.hashCode(pieces);
     }
 }
-
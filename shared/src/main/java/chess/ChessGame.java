@@ -9,11 +9,20 @@ import java.util.Objects;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Queries (validMoves, legalMoves, isInCheckmate, isInStalemate) try moves on
+ * a scratch copy of the board and never change this game, so a thread can
+ * read a game another thread only reads. Moves change the board in place, so
+ * a game that is being moved must not be read or written by other threads
+ * at the same time.
  */
 public class ChessGame {
     private ChessBoard board;
     private TeamColor currentTurn;
 
+    // set in an undo record when black was to move before the move was made
+    private static final int UNDO_BLACK_TO_MOVE = 1 << ChessBoard.UNDO_BITS;
+
     public ChessGame() {
         this.board = new ChessBoard();
         // white goes first
@@ -21,6 +30,21 @@ public class ChessGame {
         board.resetBoard();
     }
 
+    private ChessGame(ChessBoard board, TeamColor currentTurn) {
+        this.board = board;
+        this.currentTurn = currentTurn;
+    }
+
+    /**
+     * @return a new game with the same position and turn that shares nothing
+     * with this one, so either can be moved without changing the other
+     */
+    public ChessGame copy() {
+        ChessBoard boardCopy = new ChessBoard();
+        boardCopy.copyFrom(board);
+        return new ChessGame(boardCopy, currentTurn);
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -59,21 +83,68 @@ public class ChessGame {
         if (startPiece == null) {
             return new ArrayList<>();
         }
-        Collection<ChessMove> posMoves = startPiece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new ArrayList<>();
-
-        for (ChessMove move : posMoves) {
-            // try the move on the temp board
-            ChessBoard tempBoard = new ChessBoard();
-            copyBoard(board, tempBoard);
-            ChessPiece movingPiece = tempBoard.getPiece(move.getStartPosition());
-            tempBoard.addPiece(move.getEndPosition(), movingPiece);
-            tempBoard.addPiece(move.getStartPosition(), null);
-            if (!isInCheckAfterMove(tempBoard, startPiece.getTeamColor())) {
-                validMoves.add(move);
-            }}
-    return validMoves;
-}
+        MoveBuffer moves = new MoveBuffer(32);
+        int square = ChessBoard.squareIndex(startPosition.getRow(), startPosition.getColumn());
+        MoveGenerator.generatePieceMoves(board, startPiece.getTeamColor(), startPiece.getPieceType(), square, moves);
+        filterLegal(scratchBoard(), moves, 0, startPiece.getTeamColor());
+
+        Collection<ChessMove> validMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            validMoves.add(MoveBuffer.toChessMove(moves.get(i)));
+        }
+        return validMoves;
+    }
+
+    /**
+     * Appends every legal move for a team to the buffer as packed moves
+     *
+     * @param teamColor the team to generate moves for
+     * @param moves buffer the legal moves are appended to
+     */
+    public void legalMoves(TeamColor teamColor, MoveBuffer moves) {
+        int start = moves.size();
+        MoveGenerator.generateMoves(board, teamColor, moves);
+        filterLegal(scratchBoard(), moves, start, teamColor);
+    }
+
+    // a copy to try moves on, so searching never changes this game's board
+    private ChessBoard scratchBoard() {
+        ChessBoard scratch = new ChessBoard();
+        scratch.copyFrom(board);
+        return scratch;
+    }
+
+    // keeps only the moves from start on that don't leave the team's king in check
+    private static void filterLegal(ChessBoard board, MoveBuffer moves, int start, TeamColor teamColor) {
+        int kept = start;
+        int end = moves.size();
+        for (int i = start; i < end; i++) {
+            int move = moves.get(i);
+            // try the move in place, then take it back
+            int undo = board.makeMove(move);
+            boolean leavesCheck = isInCheckAfterMove(board, teamColor);
+            board.unmakeMove(undo);
+            if (!leavesCheck) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    private boolean hasLegalMove(TeamColor teamColor) {
+        ChessBoard board = scratchBoard();
+        MoveBuffer moves = new MoveBuffer();
+        MoveGenerator.generateMoves(board, teamColor, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = board.makeMove(moves.get(i));
+            boolean leavesCheck = isInCheckAfterMove(board, teamColor);
+            board.unmakeMove(undo);
+            if (!leavesCheck) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * Makes a move in a chess game
@@ -82,6 +153,9 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
+        if (!ChessBoard.isOnBoard(move.getStartPosition()) || !ChessBoard.isOnBoard(move.getEndPosition())) {
+            throw new InvalidMoveException("Move is invalid");
+        }
         ChessPiece piece = board.getPiece(move.getStartPosition());
         if (piece == null || piece.getTeamColor() != currentTurn) {
             throw new InvalidMoveException("Move is invalid");
@@ -90,15 +164,48 @@ public class ChessGame {
         if (moves == null || !moves.contains(move)) {
             throw new InvalidMoveException("Move is invalid");
         }
-        // Make move
-        if (move.getPromotionPiece() != null) {
-            board.addPiece(move.getEndPosition(), new ChessPiece(currentTurn, move.getPromotionPiece()));
-        } else {
-            board.addPiece(move.getEndPosition(), piece);
+        // Make move and switch turns
+        applyMove(move);
+    }
+
+    /**
+     * Plays a move in place without checking that it is legal and passes the
+     * turn to the other team. The returned undo record holds everything
+     * needed to take the move back (captured piece, promotion, prior turn).
+     *
+     * @param move chess move to play
+     * @return undo record to hand to {@link #unmakeMove(int)}
+     */
+    public int applyMove(ChessMove move) {
+        return switchTurn(board.makeMove(move));
+    }
+
+    /**
+     * Same as {@link #applyMove(ChessMove)} for a move packed by {@link MoveBuffer}
+     *
+     * @param move packed move to play
+     * @return undo record to hand to {@link #unmakeMove(int)}
+     */
+    public int applyMove(int move) {
+        return switchTurn(board.makeMove(move));
+    }
+
+    private int switchTurn(int undo) {
+        if (currentTurn == TeamColor.BLACK) {
+            undo |= UNDO_BLACK_TO_MOVE;
         }
-        board.addPiece(move.getStartPosition(), null);
-        // Switch turns
         currentTurn = (currentTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return undo;
+    }
+
+    /**
+     * Takes back a move played with {@link #applyMove(ChessMove)}
+     *
+     * @param undo the record returned by applyMove
+     */
+    public void unmakeMove(int undo) {
+        board.unmakeMove(undo);
+        currentTurn = (undo & UNDO_BLACK_TO_MOVE) != 0 ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
 
@@ -112,66 +219,17 @@ public class ChessGame {
         return isInCheckAfterMove(this.board, teamColor);
     }
 
-    private boolean isInCheckAfterMove(ChessBoard board, TeamColor teamColor) {
-        ChessPosition kingPos = findKingPosition(board, teamColor);
+    private static boolean isInCheckAfterMove(ChessBoard board, TeamColor teamColor) {
+        int kingSquare = board.getKingSquare(teamColor);
 
         // No king found - error condition
-        if (kingPos == null) {
+        if (kingSquare < 0) {
             return false;
         }
 
-        // Check if any opponent piece can capture the king
+        // Check if any opponent piece attacks the king's square
         TeamColor oppColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-        return canOpponentCaptureKing(board, oppColor, kingPos);
-    }
-
-    private ChessPosition findKingPosition(ChessBoard board, TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (isKingOfColor(piece, teamColor)) {
-                    return position;
-                }
-            }
-        }
-        return null;
-    }
-
-    private boolean canOpponentCaptureKing(ChessBoard board, TeamColor oppColor, ChessPosition kingPos) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(pos);
-
-                if (piece == null || piece.getTeamColor() != oppColor) {
-                    continue;
-                }
-
-                // Check if any of this piece's moves can capture the king
-                Collection<ChessMove> moves = piece.pieceMoves(board, pos);
-                if (canMovesReachPosition(moves, kingPos)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean isKingOfColor(ChessPiece piece, TeamColor teamColor) {
-        return piece != null
-                && piece.getPieceType() == ChessPiece.PieceType.KING
-                && piece.getTeamColor() == teamColor;
-    }
-
-    private boolean canMovesReachPosition(Collection<ChessMove> moves, ChessPosition targetPos) {
-        for (ChessMove move : moves) {
-            if (move.getEndPosition().equals(targetPos)) {
-                return true;
-            }
-        }
-        return false;
+        return board.isSquareAttacked(kingSquare, oppColor);
     }
 
         /**
@@ -187,42 +245,8 @@ public class ChessGame {
             return false;
         }
 
-        // Check every position for pieces of the given team
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(pos);
-
-                // Skip if no piece or wrong team
-                if (piece == null || piece.getTeamColor() != teamColor) {
-                    continue;
-                }
-
-                // Check if any valid move gets us out of check
-                Collection<ChessMove> moves = validMoves(pos);
-                if (movePreventsCheck(moves, teamColor)) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    private boolean movePreventsCheck(Collection<ChessMove> moves, TeamColor teamColor) {
-        for (ChessMove move : moves) {
-            ChessBoard tempBoard = new ChessBoard();
-            copyBoard(board, tempBoard);
-
-            // Make the move on temporary board
-            ChessPiece movePiece = tempBoard.getPiece(move.getStartPosition());
-            tempBoard.addPiece(move.getEndPosition(), movePiece);
-            tempBoard.addPiece(move.getStartPosition(), null);
-
-            if (!isInCheckAfterMove(tempBoard, teamColor)) {
-                return true;
-            }
-        }
-        return false;
+        // Check if any legal move gets us out of check
+        return !hasLegalMove(teamColor);
     }
 
 
@@ -238,20 +262,12 @@ public class ChessGame {
             if (isInCheck(teamColor)) {
                 return false;
             }
-            boolean newPiece = false;
-            // check all pieces for valid moves
-            for (int row = 1; row <= 8; row++) {
-                for (int col = 1; col <= 8; col++) {
-                    ChessPosition pos = new ChessPosition(row, col);
-                    ChessPiece piece = board.getPiece(pos);
-                    if (piece != null && piece.getTeamColor() == teamColor) {
-                       newPiece = true;
-                        Collection<ChessMove> moves = validMoves(pos);
-                        // not empty--not stalemate
-                        if (!moves.isEmpty()) {
-                            return false;
-                        }}}}
-            return newPiece;
+            // no pieces at all isn't a stalemate
+            if (board.getOccupancy(teamColor) == 0) {
+                return false;
+            }
+            // any legal move--not stalemate
+            return !hasLegalMove(teamColor);
         }
         /**
          * Sets this game's chessboard with a given board
@@ -271,17 +287,17 @@ public class ChessGame {
             return board;
         }
 
-        private void copyBoard(ChessBoard currentBoard, ChessBoard copyBoard) {
-            for (int row = 1; row <= 8; row++) {
-                for (int col = 1; col <= 8; col++) {
-                    ChessPosition pos = new ChessPosition(row, col);
-                    ChessPiece piece = currentBoard.getPiece(pos);
-                    // copy piece if it exists
-                    if (piece != null) {
-                        copyBoard.addPiece(pos, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                    } else {
-                    copyBoard.addPiece(pos, null);
-                    }}}}
+    /**
+     * Gets the 64-bit Zobrist key of the position, covering piece placement
+     * and whose turn it is. Updated incrementally as pieces move, so this is
+     * constant time.
+     *
+     * @return the position's Zobrist key
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey();
+        return currentTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
 
     @Override
     public boolean equals(Object o) {
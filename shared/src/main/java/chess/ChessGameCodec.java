@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * Compact binary encoding of a ChessGame, used to store games.
+ * <p>
+ * Version 1 layout:
+ * <ul>
+ * <li>byte 0: format version</li>
+ * <li>byte 1: flags; bit 0 set when black is to move. The other bits are
+ * reserved for castling and en passant state, which the engine doesn't
+ * track yet</li>
+ * <li>bytes 2-9: occupancy bitmask, big-endian, bit n set when square n holds a piece</li>
+ * <li>then one nibble per occupied square in square order, high nibble first,
+ * holding the piece index (color * 6 + piece type ordinal)</li>
+ * </ul>
+ * A full board of 32 pieces takes 26 bytes.
+ */
+public final class ChessGameCodec {
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_BLACK_TO_MOVE = 1;
+    private static final int HEADER_BYTES = 10;
+
+    private ChessGameCodec() {
+    }
+
+    /**
+     * @param game the game to encode
+     * @return the encoded game
+     */
+    public static byte[] encode(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.getOccupancy();
+        int pieceCount = Long.bitCount(occupied);
+        byte[] bytes = new byte[HEADER_BYTES + (pieceCount + 1) / 2];
+
+        bytes[0] = VERSION;
+        bytes[1] = (byte) (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? FLAG_BLACK_TO_MOVE : 0);
+        for (int i = 0; i < 8; i++) {
+            bytes[2 + i] = (byte) (occupied >>> (56 - 8 * i));
+        }
+
+        int nibble = 0;
+        long squares = occupied;
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            int index = board.pieceIndexAt(square);
+            int offset = HEADER_BYTES + nibble / 2;
+            bytes[offset] |= (byte) (nibble % 2 == 0 ? index << 4 : index);
+            nibble++;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param bytes a game encoded by {@link #encode(ChessGame)}
+     * @return the decoded game
+     * @throws IllegalArgumentException if the bytes aren't a valid encoding
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Encoded game is too short");
+        }
+        if (bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version: " + bytes[0]);
+        }
+
+        long occupied = 0L;
+        for (int i = 0; i < 8; i++) {
+            occupied = (occupied << 8) | (bytes[2 + i] & 0xFF);
+        }
+        int pieceCount = Long.bitCount(occupied);
+        if (bytes.length != HEADER_BYTES + (pieceCount + 1) / 2) {
+            throw new IllegalArgumentException("Encoded game has the wrong length");
+        }
+
+        ChessBoard board = new ChessBoard();
+        int nibble = 0;
+        long squares = occupied;
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            int packed = bytes[HEADER_BYTES + nibble / 2] & 0xFF;
+            int index = nibble % 2 == 0 ? packed >>> 4 : packed & 0xF;
+            if (index >= 12) {
+                throw new IllegalArgumentException("Encoded game has an invalid piece: " + index);
+            }
+            board.setSquare(square, index);
+            nibble++;
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        boolean blackToMove = (bytes[1] & FLAG_BLACK_TO_MOVE) != 0;
+        game.setTeamTurn(blackToMove ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        return game;
+    }
+
+    /**
+     * Checks whether stored bytes hold this binary format rather than a
+     * legacy JSON game (which always starts with '{')
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_BYTES && bytes[0] == VERSION;
+    }
+}
@@ -12,6 +12,10 @@ public class ChessMove {
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
 
+    // lazily filled cache of on-board moves, indexed by from, to and promotion (0 = none)
+    private static final int PROMOTION_SLOTS = ChessPiece.PieceType.values().length + 1;
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * PROMOTION_SLOTS];
+
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition,
                      ChessPiece.PieceType promotionPiece) {
         this.startPosition = startPosition;
@@ -19,6 +23,40 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets the shared move between two squares. Moves are immutable, so one
+     * instance per from/to/promotion is reused everywhere.
+     *
+     * @param from start square index (0-63)
+     * @param to end square index (0-63)
+     * @param promotionPiece piece to promote to, or null
+     */
+    public static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int promotion = promotionPiece == null ? 0 : promotionPiece.ordinal() + 1;
+        int index = (from * 64 + to) * PROMOTION_SLOTS + promotion;
+        ChessMove move = MOVES[index];
+        if (move == null) {
+            // racing threads may both build it, which is harmless since moves are immutable
+            move = new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to), promotionPiece);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
+    /**
+     * Same as {@link #of(int, int, ChessPiece.PieceType)} for positions. Moves
+     * with an off-board position aren't shared; a new one is built so
+     * validation can reject it.
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (!ChessBoard.isOnBoard(startPosition) || !ChessBoard.isOnBoard(endPosition)) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(ChessBoard.squareIndex(startPosition.getRow(), startPosition.getColumn()),
+                ChessBoard.squareIndex(endPosition.getRow(), endPosition.getColumn()), promotionPiece);
+    }
+
     /**
      * @return ChessPosition of starting location
      */
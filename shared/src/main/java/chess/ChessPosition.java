@@ -12,11 +12,40 @@ public class ChessPosition {
     private final int row;
     private final int col;
 
+    // one shared instance per square, indexed like ChessBoard squares
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition(ChessBoard.squareRow(square), ChessBoard.squareColumn(square));
+        }
+    }
+
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared position for a square. Positions are immutable, so
+     * callers should prefer this over the constructor.
+     *
+     * @return the canonical position, or a new one if off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (!ChessBoard.isOnBoard(row, col)) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[ChessBoard.squareIndex(row, col)];
+    }
+
+    /**
+     * @return the shared position for a square index (0-63)
+     */
+    public static ChessPosition ofSquare(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
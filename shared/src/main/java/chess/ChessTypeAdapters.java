@@ -0,0 +1,256 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written Gson adapters for the chess types. They read and write the same
+ * JSON that Gson's reflective adapters produced, and boards stored before the
+ * bitboard change (an 8x8 "squares" array) still read, but they go straight
+ * between fields and the stream.
+ * <p>
+ * Reading reuses the shared ChessPosition and ChessMove instances where it
+ * can, the same way move generation does.
+ */
+public final class ChessTypeAdapters {
+    public static final TypeAdapter<ChessPosition> POSITION = new PositionAdapter().nullSafe();
+    public static final TypeAdapter<ChessPiece> PIECE = new PieceAdapter().nullSafe();
+    public static final TypeAdapter<ChessMove> MOVE = new MoveAdapter().nullSafe();
+    public static final TypeAdapter<ChessBoard> BOARD = new BoardAdapter().nullSafe();
+    public static final TypeAdapter<ChessGame> GAME = new GameAdapter().nullSafe();
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private ChessTypeAdapters() {
+    }
+
+    // {"row":1,"col":5}
+    private static class PositionAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            out.beginObject();
+            out.name("row").value(position.getRow());
+            out.name("col").value(position.getColumn());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return ChessPosition.of(row, col);
+        }
+    }
+
+    // {"color":"WHITE","type":"PAWN"}
+    private static class PieceAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            out.beginObject();
+            out.name("color").value(piece.getTeamColor().name());
+            out.name("type").value(piece.getPieceType().name());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            ChessGame.TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "color" -> color = readEnum(in, ChessGame.TeamColor.class);
+                    case "type" -> type = readEnum(in, ChessPiece.PieceType.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (color == null || type == null) {
+                return new ChessPiece(color, type);
+            }
+            return ChessBoard.pieceForIndex(ChessBoard.pieceIndex(color, type));
+        }
+    }
+
+    // {"startPosition":{...},"endPosition":{...},"promotionPiece":"QUEEN"}, promotionPiece left out when null
+    private static class MoveAdapter extends TypeAdapter<ChessMove> {
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.beginObject();
+            out.name("startPosition");
+            POSITION.write(out, move.getStartPosition());
+            out.name("endPosition");
+            POSITION.write(out, move.getEndPosition());
+            if (move.getPromotionPiece() != null) {
+                out.name("promotionPiece").value(move.getPromotionPiece().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "startPosition" -> start = POSITION.read(in);
+                    case "endPosition" -> end = POSITION.read(in);
+                    case "promotionPiece" -> promotion = readEnum(in, ChessPiece.PieceType.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return ChessMove.of(start, end, promotion);
+        }
+    }
+
+    // {"pieces":[12 bitboards]}; occupancy is rebuilt from the pieces, so it isn't written. A colorOccupancy
+    // field from earlier payloads is skipped.
+    // Also reads the older {"squares":[8 rows of 8 pieces or null]} written before the board used bitboards.
+    private static class BoardAdapter extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.beginObject();
+            out.name("pieces").beginArray();
+            for (ChessGame.TeamColor color : COLORS) {
+                for (ChessPiece.PieceType type : TYPES) {
+                    out.value(board.getBitboard(color, type));
+                }
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            var board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pieces" -> readPieces(in, board);
+                    case "squares" -> readSquares(in, board);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        private static void readPieces(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int index = 0; in.hasNext(); index++) {
+                if (index >= COLORS.length * TYPES.length) {
+                    throw new JsonParseException("Too many piece bitboards at " + in.getPath());
+                }
+                long bits = in.nextLong();
+                while (bits != 0) {
+                    place(in, board, Long.numberOfTrailingZeros(bits), index);
+                    bits &= bits - 1;
+                }
+            }
+            in.endArray();
+        }
+
+        // squares[row - 1][column - 1], as ChessBoard stored them before bitboards
+        private static void readSquares(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int row = 1; in.hasNext(); row++) {
+                in.beginArray();
+                for (int col = 1; in.hasNext(); col++) {
+                    ChessPiece piece = PIECE.read(in);
+                    if (piece == null) {
+                        continue;
+                    }
+                    if (!ChessBoard.isOnBoard(row, col)) {
+                        throw new JsonParseException("Square outside the board at " + in.getPath());
+                    }
+                    if (piece.getTeamColor() == null || piece.getPieceType() == null) {
+                        throw new JsonParseException("Piece without a color or type at " + in.getPath());
+                    }
+                    place(in, board, ChessBoard.squareIndex(row, col),
+                            ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+
+        private static void place(JsonReader in, ChessBoard board, int square, int index) {
+            // two pieces on one square would leave the occupancy and the pieces disagreeing
+            if ((board.getOccupancy() & 1L << square) != 0) {
+                throw new JsonParseException("Two pieces on one square at " + in.getPath());
+            }
+            board.setSquare(square, index);
+        }
+    }
+
+    // {"board":{...},"currentTurn":"WHITE"}
+    private static class GameAdapter extends TypeAdapter<ChessGame> {
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("board");
+            BOARD.write(out, game.getBoard());
+            if (game.getTeamTurn() != null) {
+                out.name("currentTurn").value(game.getTeamTurn().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            ChessBoard board = null;
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "board" -> board = BOARD.read(in);
+                    case "currentTurn" -> turn = readEnum(in, ChessGame.TeamColor.class);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            // without a board there is no position to fall back on, and the starting one would be wrong
+            if (board == null) {
+                throw new JsonParseException("Game has no board at " + in.getPath());
+            }
+            var game = new ChessGame();
+            game.setBoard(board);
+            game.setTeamTurn(turn);
+            return game;
+        }
+    }
+
+    /**
+     * Reads an enum constant by name, or null for a JSON null
+     */
+    public static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown " + type.getSimpleName() + " " + name + " at " + in.getPath());
+        }
+    }
+}
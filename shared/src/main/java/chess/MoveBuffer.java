@@ -0,0 +1,110 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of moves packed into ints, for generating moves without
+ * allocating a ChessMove per move. The caller owns the buffer and clears
+ * it between uses; it grows as needed but never shrinks.
+ * <p>
+ * Move layout: from square (bits 0-5), to square (bits 6-11), promotion
+ * piece ordinal + 1 (bits 12-14, 0 for none) and flags from bit 15 up, so
+ * a packed move needs all 32 bits of the int.
+ */
+public final class MoveBuffer {
+    public static final int FLAG_CAPTURE = 1 << 15;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private int[] moves;
+    private int size;
+
+    public MoveBuffer() {
+        this(64);
+    }
+
+    public MoveBuffer(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(1, size * 2));
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from the given index on, so a caller can generate
+     * onto the end of a shared buffer and then discard its own moves.
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public static int pack(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | to << TO_SHIFT | promotionBits << PROMOTION_SHIFT | flags;
+    }
+
+    /**
+     * Packs a ChessMove without any flags, e.g. to store it compactly
+     */
+    public static int pack(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        return pack(ChessBoard.squareIndex(start.getRow(), start.getColumn()),
+                ChessBoard.squareIndex(end.getRow(), end.getColumn()), move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move doesn't promote
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return promotionBits == 0 ? null : PIECE_TYPES[promotionBits - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & FLAG_CAPTURE) != 0;
+    }
+
+    /**
+     * @return the shared ChessMove for a packed move
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
@@ -0,0 +1,146 @@
+package chess;
+
+/**
+ * Generates pseudo-legal moves (moves that may still leave the king in
+ * check) straight from the board's bitboards into a caller-owned
+ * {@link MoveBuffer}, without allocating.
+ */
+public final class MoveGenerator {
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP
+    };
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds every pseudo-legal move for one side to the buffer
+     *
+     * @param board the board to generate moves on
+     * @param color the team to move
+     * @param moves buffer the moves are appended to
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor color, MoveBuffer moves) {
+        for (ChessPiece.PieceType type : PIECE_TYPES) {
+            long pieces = board.getBitboard(color, type);
+            while (pieces != 0) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                generatePieceMoves(board, color, type, from, moves);
+            }
+        }
+    }
+
+    /**
+     * Adds every pseudo-legal move for a single piece to the buffer. The
+     * piece doesn't have to be on the board at that square.
+     *
+     * @param board the board to generate moves on
+     * @param color the piece's team
+     * @param type the piece's type
+     * @param from square index of the piece (0-63)
+     * @param moves buffer the moves are appended to
+     */
+    public static void generatePieceMoves(ChessBoard board, ChessGame.TeamColor color, ChessPiece.PieceType type,
+                                          int from, MoveBuffer moves) {
+        long own = board.getOccupancy(color);
+        long enemy = board.getOccupancy() & ~own;
+        switch (type) {
+            case KING:
+                addTargets(from, Attacks.KING[from] & ~own, enemy, moves);
+                break;
+            case KNIGHT:
+                addTargets(from, Attacks.KNIGHT[from] & ~own, enemy, moves);
+                break;
+            case QUEEN:
+                addSlides(from, Attacks.BISHOP_DIRECTIONS, own, enemy, moves);
+                addSlides(from, Attacks.ROOK_DIRECTIONS, own, enemy, moves);
+                break;
+            case BISHOP:
+                addSlides(from, Attacks.BISHOP_DIRECTIONS, own, enemy, moves);
+                break;
+            case ROOK:
+                addSlides(from, Attacks.ROOK_DIRECTIONS, own, enemy, moves);
+                break;
+            case PAWN:
+                addPawnMoves(from, color, own | enemy, enemy, moves);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void addTargets(int from, long targets, long enemy, MoveBuffer moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemy & (1L << to)) != 0 ? MoveBuffer.FLAG_CAPTURE : 0;
+            moves.add(MoveBuffer.pack(from, to, null, flags));
+        }
+    }
+
+    private static void addSlides(int from, int[][] directions, long own, long enemy, MoveBuffer moves) {
+        int startRow = ChessBoard.squareRow(from);
+        int startCol = ChessBoard.squareColumn(from);
+        for (int[] direction : directions) {
+            int row = startRow + direction[0];
+            int col = startCol + direction[1];
+            while (ChessBoard.isOnBoard(row, col)) {
+                int to = ChessBoard.squareIndex(row, col);
+                long bit = 1L << to;
+                if ((own & bit) != 0) {
+                    break;
+                }
+                if ((enemy & bit) != 0) {
+                    moves.add(MoveBuffer.pack(from, to, null, MoveBuffer.FLAG_CAPTURE));
+                    break;
+                }
+                moves.add(MoveBuffer.pack(from, to, null, 0));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+    }
+
+    private static void addPawnMoves(int from, ChessGame.TeamColor color, long occupied, long enemy,
+                                     MoveBuffer moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int direction = white ? 1 : -1;
+        int startRow = white ? 2 : 7;
+        int promotionRow = white ? 8 : 1;
+        int row = ChessBoard.squareRow(from);
+        int col = ChessBoard.squareColumn(from);
+
+        // forward one, and two from the starting row
+        int oneRow = row + direction;
+        if (ChessBoard.isOnBoard(oneRow, col) && (occupied & (1L << ChessBoard.squareIndex(oneRow, col))) == 0) {
+            addPawnMove(from, ChessBoard.squareIndex(oneRow, col), oneRow == promotionRow, 0, moves);
+            int twoRow = oneRow + direction;
+            if (row == startRow && (occupied & (1L << ChessBoard.squareIndex(twoRow, col))) == 0) {
+                moves.add(MoveBuffer.pack(from, ChessBoard.squareIndex(twoRow, col), null, 0));
+            }
+        }
+
+        // diagonal captures
+        long captures = Attacks.PAWN[color.ordinal()][from] & enemy;
+        while (captures != 0) {
+            int to = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(from, to, ChessBoard.squareRow(to) == promotionRow, MoveBuffer.FLAG_CAPTURE, moves);
+        }
+    }
+
+    private static void addPawnMove(int from, int to, boolean promotes, int flags, MoveBuffer moves) {
+        if (!promotes) {
+            moves.add(MoveBuffer.pack(from, to, null, flags));
+            return;
+        }
+        for (ChessPiece.PieceType promotion : PROMOTIONS) {
+            moves.add(MoveBuffer.pack(from, to, promotion, flags));
+        }
+    }
+}
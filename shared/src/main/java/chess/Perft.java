@@ -0,0 +1,155 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * Comparing the counts against published reference numbers checks the move
+ * generator, and the nodes per second it reaches measures its speed.
+ * <p>
+ * Run with no arguments to check the built-in reference positions, or as
+ * {@code Perft <depth> [fen]} to count a single position.
+ */
+public final class Perft {
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    /**
+     * Reference positions and their node counts by depth (index 0 = depth 1).
+     * This engine has no castling or en passant, so where the published
+     * count includes en passant captures at the leaves they are subtracted
+     * (start position depth 5: 4,865,609 - 258; rook endgame depth 3: 2,812 - 2).
+     */
+    public static final ReferencePosition[] REFERENCE_POSITIONS = {
+            new ReferencePosition("start position", START_FEN,
+                    new long[] {20, 400, 8_902, 197_281, 4_865_351}),
+            new ReferencePosition("rook endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[] {14, 191, 2_810}),
+    };
+
+    public record ReferencePosition(String name, String fen, long[] nodes) {
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes reachable from the game's position in exactly
+     * depth moves. The game is left as it was.
+     *
+     * @param game the position to search from
+     * @param depth number of plies to search
+     * @return number of leaf nodes
+     */
+    public static long perft(ChessGame game, int depth) {
+        MoveBuffer[] buffers = new MoveBuffer[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            buffers[i] = new MoveBuffer();
+        }
+        return perft(game, depth, buffers);
+    }
+
+    private static long perft(ChessGame game, int depth, MoveBuffer[] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveBuffer moves = buffers[depth];
+        moves.clear();
+        game.legalMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = game.applyMove(moves.get(i));
+            nodes += perft(game, depth - 1, buffers);
+            game.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * Builds a game from a FEN string. Only piece placement and side to move
+     * are read; castling and en passant fields are ignored.
+     *
+     * @param fen the position in Forsyth-Edwards notation
+     * @return a game set up in that position
+     */
+    public static ChessGame fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        ChessBoard board = new ChessBoard();
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN must have 8 ranks: " + fen);
+        }
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                    continue;
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c)
+                        ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col), new ChessPiece(color, pieceType(c)));
+                col++;
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        boolean blackToMove = fields.length > 1 && fields[1].equals("b");
+        game.setTeamTurn(blackToMove ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        return game;
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece in FEN: " + c);
+        };
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            int depth = Integer.parseInt(args[0]);
+            String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : START_FEN;
+            ChessGame game = fromFen(fen);
+            for (int d = 1; d <= depth; d++) {
+                report(game, d, -1);
+            }
+            return;
+        }
+
+        boolean passed = true;
+        for (ReferencePosition position : REFERENCE_POSITIONS) {
+            System.out.println(position.name() + ": " + position.fen());
+            ChessGame game = fromFen(position.fen());
+            for (int d = 1; d <= position.nodes().length; d++) {
+                passed &= report(game, d, position.nodes()[d - 1]);
+            }
+        }
+        if (!passed) {
+            System.out.println("Perft FAILED");
+            System.exit(1);
+        }
+        System.out.println("Perft passed");
+    }
+
+    // prints one depth's count and speed; returns false if it doesn't match the expected count
+    private static boolean report(ChessGame game, int depth, long expected) {
+        long start = System.nanoTime();
+        long nodes = perft(game, depth);
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        long nodesPerSecond = nodes * 1_000_000_000L / elapsed;
+        boolean matches = expected < 0 || nodes == expected;
+        String check = expected < 0 ? "" : (matches ? "  ok" : "  MISMATCH, expected " + expected);
+        System.out.printf("  depth %d: %,d nodes in %.1f ms (%,d nodes/s)%s%n",
+                depth, nodes, elapsed / 1_000_000.0, nodesPerSecond, check);
+        return matches;
+    }
+}
@@ -0,0 +1,28 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key
+ * for every piece on its square, plus BLACK_TO_MOVE when it's black's turn,
+ * so adding, removing or moving a piece updates it with one or two XORs.
+ * The seed is fixed so keys are stable across runs and machines.
+ */
+final class Zobrist {
+    // PIECE_SQUARE[piece index][square], piece index as in ChessBoard
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+}
@@ -1,4 +1,53 @@
 package model;
 import chess.ChessGame;
 
-public record GameData (int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {}
+/**
+ * @param status how the game stands; null is treated as ACTIVE for data from older servers
+ * @param winner the winning team, or null while the game is active or after a stalemate
+ */
+public record GameData (int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game,
+                        GameStatus status, ChessGame.TeamColor winner) {
+
+    public GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+        this(gameID, whiteUsername, blackUsername, gameName, game, GameStatus.ACTIVE, null);
+    }
+
+    public boolean isOver() {
+        return status != null && status != GameStatus.ACTIVE;
+    }
+
+    /**
+     * @return this game with its own copy of the ChessGame, so moves made on one don't show in the other
+     */
+    public GameData copy() {
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game == null ? null : game.copy(),
+                status, winner);
+    }
+
+    public GameData withPlayers(String whiteUsername, String blackUsername) {
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game, status, winner);
+    }
+
+    public GameData withResult(GameStatus status, ChessGame.TeamColor winner) {
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game, status, winner);
+    }
+
+    /**
+     * Checks whether the team to move is mated or stalemated. That's the only
+     * team that can be, so this is one search rather than one per team.
+     *
+     * @return this game with the result the position calls for, or this game unchanged if play goes on
+     */
+    public GameData withResultFromPosition() {
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        if (game.isInCheckmate(toMove)) {
+            ChessGame.TeamColor winner = toMove == ChessGame.TeamColor.WHITE
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            return withResult(GameStatus.CHECKMATE, winner);
+        }
+        if (game.isInStalemate(toMove)) {
+            return withResult(GameStatus.STALEMATE, null);
+        }
+        return this;
+    }
+}
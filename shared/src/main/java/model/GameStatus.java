@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Whether a game is still being played, and if not, how it ended
+ */
+public enum GameStatus {
+    ACTIVE,
+    CHECKMATE,
+    STALEMATE,
+    RESIGNED
+}
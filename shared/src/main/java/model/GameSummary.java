@@ -0,0 +1,26 @@
+package model;
+import chess.ChessGame;
+
+/**
+ * What the game list shows about a game: everything in GameData except the board
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName,
+                          GameStatus status, ChessGame.TeamColor winner) {
+
+    public static GameSummary of(GameData game) {
+        return new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                game.status(), game.winner());
+    }
+
+    public boolean hasOpenSeat() {
+        return whiteUsername == null || blackUsername == null;
+    }
+
+    public boolean hasPlayer(String username) {
+        return username.equals(whiteUsername) || username.equals(blackUsername);
+    }
+
+    public boolean isOver() {
+        return status != null && status != GameStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,38 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.ChessTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import websocket.commands.UserGameCommand;
+import websocket.commands.UserGameCommandAdapter;
+import websocket.messages.ServerMessage;
+import websocket.messages.ServerMessageAdapter;
+
+/**
+ * The one Gson the client and server share. Gson builds and caches a type
+ * adapter the first time it sees a type, so creating a new Gson throws that
+ * work away; use this instance instead. It is thread-safe.
+ * <p>
+ * The chess types, commands and messages have hand-written adapters and
+ * never go through reflection. Other types (request and result records)
+ * use Gson's reflective adapters, built once here and then reused.
+ */
+public final class Json {
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ChessPosition.class, ChessTypeAdapters.POSITION)
+            .registerTypeAdapter(ChessPiece.class, ChessTypeAdapters.PIECE)
+            .registerTypeAdapter(ChessMove.class, ChessTypeAdapters.MOVE)
+            .registerTypeAdapter(ChessBoard.class, ChessTypeAdapters.BOARD)
+            .registerTypeAdapter(ChessGame.class, ChessTypeAdapters.GAME)
+            .registerTypeHierarchyAdapter(UserGameCommand.class, new UserGameCommandAdapter())
+            .registerTypeHierarchyAdapter(ServerMessage.class, new ServerMessageAdapter())
+            .create();
+
+    private Json() {
+    }
+}
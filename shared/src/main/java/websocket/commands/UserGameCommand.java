@@ -16,17 +16,27 @@ public class UserGameCommand {
 
     private final Integer gameID;
 
+    // set on CONNECT by clients that can apply MOVE_MADE updates instead of a LOAD_GAME per move
+    private final Boolean moveUpdates;
+
     public UserGameCommand(CommandType commandType, String authToken, Integer gameID) {
+        this(commandType, authToken, gameID, null);
+    }
+
+    public UserGameCommand(CommandType commandType, String authToken, Integer gameID, Boolean moveUpdates) {
         this.commandType = commandType;
         this.authToken = authToken;
         this.gameID = gameID;
+        this.moveUpdates = moveUpdates;
     }
 
     public enum CommandType {
         CONNECT,
         MAKE_MOVE,
         LEAVE,
-        RESIGN
+        RESIGN,
+        // asks for a fresh LOAD_GAME after a client notices it missed a MOVE_MADE
+        REQUEST_GAME
     }
 
     public CommandType getCommandType() {
@@ -41,6 +51,10 @@ public class UserGameCommand {
         return gameID;
     }
 
+    public boolean wantsMoveUpdates() {
+        return Boolean.TRUE.equals(moveUpdates);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,91 @@
+package websocket.commands;
+
+import chess.ChessMove;
+import chess.ChessTypeAdapters;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes UserGameCommand and MakeMoveCommand, choosing the class
+ * from commandType. Fields may come in any order, so a command is read in
+ * one pass and built at the end.
+ */
+public class UserGameCommandAdapter extends TypeAdapter<UserGameCommand> {
+
+    @Override
+    public void write(JsonWriter out, UserGameCommand command) throws IOException {
+        if (command == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("commandType").value(command.getCommandType().name());
+        if (command.getAuthToken() != null) {
+            out.name("authToken").value(command.getAuthToken());
+        }
+        if (command.getGameID() != null) {
+            out.name("gameID").value(command.getGameID());
+        }
+        if (command.wantsMoveUpdates()) {
+            out.name("moveUpdates").value(true);
+        }
+        if (command instanceof MakeMoveCommand makeMove && makeMove.getMove() != null) {
+            out.name("move");
+            ChessTypeAdapters.MOVE.write(out, makeMove.getMove());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public UserGameCommand read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        UserGameCommand.CommandType type = null;
+        String authToken = null;
+        Integer gameID = null;
+        Boolean moveUpdates = null;
+        ChessMove move = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "commandType" -> type = ChessTypeAdapters.readEnum(in, UserGameCommand.CommandType.class);
+                case "authToken" -> authToken = nextStringOrNull(in);
+                case "gameID" -> gameID = nextIntOrNull(in);
+                case "moveUpdates" -> moveUpdates = in.nextBoolean();
+                case "move" -> move = ChessTypeAdapters.MOVE.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (type == null) {
+            throw new JsonParseException("Command has no commandType");
+        }
+        if (type == UserGameCommand.CommandType.MAKE_MOVE) {
+            return new MakeMoveCommand(authToken, gameID, move);
+        }
+        return new UserGameCommand(type, authToken, gameID, moveUpdates);
+    }
+
+    private static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Integer nextIntOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+}
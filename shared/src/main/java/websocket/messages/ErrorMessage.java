@@ -4,8 +4,17 @@ public class ErrorMessage extends ServerMessage {
     private final String errorMessage;
 
     public ErrorMessage(String message) {
+        this(message, true);
+    }
+
+    private ErrorMessage(String message, boolean addPrefix) {
         super(ServerMessageType.ERROR);
-        this.errorMessage = "Error: " + message;
+        this.errorMessage = addPrefix ? "Error: " + message : message;
+    }
+
+    // for messages read back from JSON, which already carry the prefix
+    static ErrorMessage parsed(String errorMessage) {
+        return new ErrorMessage(errorMessage, false);
     }
 
     public String getErrorMessage() {
@@ -3,13 +3,25 @@ import chess.ChessGame;
 
 public class LoadGameMessage extends ServerMessage {
     private final ChessGame game;
+    // number of moves the server has broadcast for this game, so clients
+    // receiving MOVE_MADE updates know where the snapshot fits; null if unknown
+    private final Integer sequence;
 
     public LoadGameMessage(ChessGame game) {
+        this(game, null);
+    }
+
+    public LoadGameMessage(ChessGame game, Integer sequence) {
         super(ServerMessageType.LOAD_GAME);
         this.game = game;
+        this.sequence = sequence;
     }
 
     public ChessGame getGame() {
         return game;
     }
-}
\ No newline at end of file
+
+    public Integer getSequence() {
+        return sequence;
+    }
+}
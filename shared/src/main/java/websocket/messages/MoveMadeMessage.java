@@ -0,0 +1,37 @@
+package websocket.messages;
+
+import chess.ChessMove;
+
+/**
+ * Sent instead of a full LOAD_GAME to clients that asked for move updates.
+ * A client applies the move to its own copy of the game if the sequence
+ * number follows the last one it saw and the resulting position hash
+ * matches; otherwise it has missed something and asks for the full game.
+ */
+public class MoveMadeMessage extends ServerMessage {
+    private final ChessMove move;
+    private final int sequence;
+    private final long positionHash;
+
+    public MoveMadeMessage(ChessMove move, int sequence, long positionHash) {
+        super(ServerMessageType.MOVE_MADE);
+        this.move = move;
+        this.sequence = sequence;
+        this.positionHash = positionHash;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the game's Zobrist key after the move
+     */
+    public long getPositionHash() {
+        return positionHash;
+    }
+}
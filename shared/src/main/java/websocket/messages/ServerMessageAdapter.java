@@ -0,0 +1,90 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessTypeAdapters;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes every kind of ServerMessage, choosing the subclass from
+ * serverMessageType. Fields may come in any order, so a message is read in
+ * one pass and built at the end.
+ */
+public class ServerMessageAdapter extends TypeAdapter<ServerMessage> {
+
+    @Override
+    public void write(JsonWriter out, ServerMessage message) throws IOException {
+        if (message == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("serverMessageType").value(message.getServerMessageType().name());
+        if (message instanceof LoadGameMessage load) {
+            if (load.getGame() != null) {
+                out.name("game");
+                ChessTypeAdapters.GAME.write(out, load.getGame());
+            }
+            if (load.getSequence() != null) {
+                out.name("sequence").value(load.getSequence());
+            }
+        } else if (message instanceof MoveMadeMessage moveMade) {
+            out.name("move");
+            ChessTypeAdapters.MOVE.write(out, moveMade.getMove());
+            out.name("sequence").value(moveMade.getSequence());
+            out.name("positionHash").value(moveMade.getPositionHash());
+        } else if (message instanceof ErrorMessage error) {
+            out.name("errorMessage").value(error.getErrorMessage());
+        } else if (message instanceof NotificationMessage notification) {
+            out.name("message").value(notification.getMessage());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ServerMessage read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ServerMessage.ServerMessageType type = null;
+        ChessGame game = null;
+        ChessMove move = null;
+        Integer sequence = null;
+        long positionHash = 0;
+        String text = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "serverMessageType" -> type = ChessTypeAdapters.readEnum(in, ServerMessage.ServerMessageType.class);
+                case "game" -> game = ChessTypeAdapters.GAME.read(in);
+                case "move" -> move = ChessTypeAdapters.MOVE.read(in);
+                case "sequence" -> sequence = in.nextInt();
+                case "positionHash" -> positionHash = in.nextLong();
+                case "errorMessage", "message" -> text = in.nextString();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (type == null) {
+            throw new JsonParseException("Message has no serverMessageType");
+        }
+        return switch (type) {
+            case LOAD_GAME -> new LoadGameMessage(game, sequence);
+            case MOVE_MADE -> {
+                if (move == null || sequence == null) {
+                    throw new JsonParseException("MOVE_MADE needs a move and a sequence");
+                }
+                yield new MoveMadeMessage(move, sequence, positionHash);
+            }
+            case ERROR -> ErrorMessage.parsed(text == null ? "" : text);
+            case NOTIFICATION -> new NotificationMessage(text == null ? "" : text);
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import serialization.Json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessBoardTests {
+
+    @Test
+    @DisplayName("Board - Off-Board Positions")
+    void offBoardPositions() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        // row 0 and row 9 used to alias onto a8 and b1
+        assertNull(board.getPiece(new ChessPosition(0, 1)));
+        assertNull(board.getPiece(new ChessPosition(9, 1)));
+        assertNull(board.getPiece(new ChessPosition(1, 0)));
+        assertNull(board.getPiece(new ChessPosition(1, 9)));
+        // square indexes used to alias through 1L << square
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(64));
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(-1));
+        assertNotNull(board.getPiece(63));
+        assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(0, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)));
+        assertThrows(IllegalArgumentException.class,
+                () -> board.isSquareAttacked(new ChessPosition(9, 9), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Game - Off-Board Move Is Invalid")
+    void offBoardMoveIsInvalid() {
+        ChessGame game = new ChessGame();
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(0, 1), new ChessPosition(3, 1), null)));
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(2, 1), new ChessPosition(2, 0), null)));
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(9, 1), new ChessPosition(9, 2), ChessPiece.PieceType.QUEEN)));
+        assertTrue(game.validMoves(new ChessPosition(0, 1)).isEmpty());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Game - Queries Leave The Board Alone")
+    void queriesLeaveBoardAlone() throws InterruptedException {
+        ChessGame game = Perft.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        byte[] expected = ChessGameCodec.encode(game);
+
+        // one thread searches while this one reads the position, as a join does while a move is checked
+        Thread searcher = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                game.isInCheckmate(ChessGame.TeamColor.WHITE);
+                game.validMoves(new ChessPosition(1, 4));
+            }
+        });
+        searcher.start();
+        while (searcher.isAlive()) {
+            assertArrayEquals(expected, ChessGameCodec.encode(game));
+        }
+        searcher.join();
+        assertArrayEquals(expected, ChessGameCodec.encode(game));
+    }
+
+    @Test
+    @DisplayName("Board - Make And Unmake Round Trip")
+    void makeUnmakeRoundTrip() {
+        ChessGame game = Perft.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        ChessBoard board = game.getBoard();
+        ChessBoard before = new ChessBoard();
+        before.copyFrom(board);
+        long key = board.getZobristKey();
+
+        MoveBuffer moves = new MoveBuffer();
+        game.legalMoves(ChessGame.TeamColor.WHITE, moves);
+        assertFalse(moves.size() == 0);
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = board.makeMove(moves.get(i));
+            board.unmakeMove(undo);
+            assertEquals(before, board);
+            assertEquals(key, board.getZobristKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Board - Unmake Restores Capture And Promotion")
+    void unmakeRestoresCaptureAndPromotion() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece pawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        board.addPiece(new ChessPosition(7, 2), pawn);
+        board.addPiece(new ChessPosition(8, 1), rook);
+
+        int undo = board.makeMove(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1),
+                ChessPiece.PieceType.KNIGHT));
+        assertNull(board.getPiece(new ChessPosition(7, 2)));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                board.getPiece(new ChessPosition(8, 1)));
+        assertEquals(0, board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        board.unmakeMove(undo);
+        assertEquals(pawn, board.getPiece(new ChessPosition(7, 2)));
+        assertEquals(rook, board.getPiece(new ChessPosition(8, 1)));
+        assertEquals(0, board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        assertEquals(2, Long.bitCount(board.getOccupancy()));
+    }
+
+    @Test
+    @DisplayName("Board - Square Attacks")
+    void squareAttacks() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        // rook along the rank until the knight blocks it
+        assertTrue(board.isSquareAttacked(new ChessPosition(1, 4), ChessGame.TeamColor.WHITE));
+        assertTrue(board.isSquareAttacked(new ChessPosition(1, 5), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(new ChessPosition(1, 6), ChessGame.TeamColor.WHITE));
+        assertTrue(board.isSquareAttacked(new ChessPosition(8, 1), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(new ChessPosition(2, 2), ChessGame.TeamColor.WHITE));
+
+        // black pawns capture downwards
+        assertTrue(board.isSquareAttacked(new ChessPosition(3, 3), ChessGame.TeamColor.BLACK));
+        assertTrue(board.isSquareAttacked(new ChessPosition(3, 5), ChessGame.TeamColor.BLACK));
+        assertFalse(board.isSquareAttacked(new ChessPosition(5, 3), ChessGame.TeamColor.BLACK));
+        assertFalse(board.isSquareAttacked(new ChessPosition(4, 3), ChessGame.TeamColor.BLACK));
+
+        // knight jumps
+        assertTrue(board.isSquareAttacked(new ChessPosition(2, 3), ChessGame.TeamColor.BLACK));
+        assertTrue(board.isSquareAttacked(new ChessPosition(3, 6), ChessGame.TeamColor.BLACK));
+        assertFalse(board.isSquareAttacked(new ChessPosition(2, 5), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Board - Positions And Moves Are Shared")
+    void interning() {
+        assertSame(ChessPosition.of(3, 4), ChessPosition.of(3, 4));
+        assertSame(ChessPosition.of(3, 4), ChessPosition.ofSquare(ChessBoard.squareIndex(3, 4)));
+        assertEquals(new ChessPosition(3, 4), ChessPosition.of(3, 4));
+        assertNotSame(ChessPosition.of(0, 4), ChessPosition.of(0, 4));
+
+        ChessMove move = ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN);
+        assertSame(move, ChessMove.of(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN));
+        assertNotSame(move, ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.ROOK));
+        assertEquals(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN),
+                move);
+
+        // off-board moves are built fresh instead of aliasing onto a real square
+        ChessMove offBoard = ChessMove.of(new ChessPosition(0, 1), ChessPosition.of(1, 1), null);
+        assertEquals(0, offBoard.getStartPosition().getRow());
+    }
+
+    @Test
+    @DisplayName("Board - Incremental Zobrist Key")
+    void incrementalZobristKey() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long start = game.getZobristKey();
+
+        // the knights go out and come back: same position, same key
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        assertNotEquals(start, game.getZobristKey());
+        game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        assertEquals(start, game.getZobristKey());
+
+        // the same pieces reached by a different order
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        ChessGame other = new ChessGame();
+        other.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        other.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        other.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(game, other);
+        assertEquals(game.getZobristKey(), other.getZobristKey());
+
+        // the key kept up move by move matches one built from scratch
+        ChessBoard rebuilt = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = game.getBoard().getPiece(square);
+            if (piece != null) {
+                rebuilt.addPiece(ChessPosition.ofSquare(square), piece);
+            }
+        }
+        assertEquals(rebuilt.getZobristKey(), game.getBoard().getZobristKey());
+
+        // side to move is part of the game's key but not the board's
+        ChessGame blackToMove = new ChessGame();
+        blackToMove.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(new ChessGame().getBoard().getZobristKey(), blackToMove.getBoard().getZobristKey());
+        assertNotEquals(start, blackToMove.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Board - Zobrist Key After Reset And Reads")
+    void zobristKeyAfterResetAndReads() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long start = game.getBoard().getZobristKey();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        long moved = game.getBoard().getZobristKey();
+
+        ChessBoard json = Json.GSON.fromJson(Json.GSON.toJson(game.getBoard()), ChessBoard.class);
+        assertEquals(moved, json.getZobristKey());
+        assertEquals(game.getBoard().hashCode(), json.hashCode());
+        assertEquals(moved, ChessGameCodec.decode(ChessGameCodec.encode(game)).getBoard().getZobristKey());
+
+        ChessBoard copy = new ChessBoard();
+        copy.copyFrom(game.getBoard());
+        assertEquals(moved, copy.getZobristKey());
+
+        // the key starts again from zero rather than from the moved position's key
+        game.getBoard().resetBoard();
+        assertEquals(start, game.getBoard().getZobristKey());
+        assertEquals(moved, copy.getZobristKey());
+    }
+}
@@ -0,0 +1,41 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessGameCodecTests {
+
+    @Test
+    @DisplayName("Codec - Start Position Round Trip")
+    void startPositionRoundTrip() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = ChessGameCodec.encode(game);
+        assertEquals(26, bytes.length);
+        assertTrue(ChessGameCodec.isEncoded(bytes));
+        assertEquals(game, ChessGameCodec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Codec - Side To Move And Odd Piece Count")
+    void sideToMoveRoundTrip() throws InvalidMoveException {
+        ChessGame game = Perft.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 0 1");
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+        assertEquals(game, decoded);
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 3), new ChessPosition(5, 3), null));
+        assertEquals(game, ChessGameCodec.decode(ChessGameCodec.encode(game)));
+    }
+
+    @Test
+    @DisplayName("Codec - Rejects Bad Input")
+    void rejectsBadInput() {
+        assertFalse(ChessGameCodec.isEncoded("{\"board\":{}}".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[] {1, 0}));
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        bytes[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+    }
+}
@@ -0,0 +1,32 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveBufferTests {
+
+    @Test
+    @DisplayName("MoveBuffer - Grows From Zero Capacity")
+    void growsFromZeroCapacity() {
+        MoveBuffer moves = new MoveBuffer(0);
+        for (int i = 0; i < 100; i++) {
+            moves.add(MoveBuffer.pack(i % 64, 63 - i % 64, null, 0));
+        }
+        assertEquals(100, moves.size());
+        assertEquals(5, MoveBuffer.from(moves.get(5)));
+        assertEquals(58, MoveBuffer.to(moves.get(5)));
+    }
+
+    @Test
+    @DisplayName("MoveBuffer - Pack Round Trip")
+    void packRoundTrip() {
+        int move = MoveBuffer.pack(52, 60, ChessPiece.PieceType.QUEEN, MoveBuffer.FLAG_CAPTURE);
+        assertEquals(52, MoveBuffer.from(move));
+        assertEquals(60, MoveBuffer.to(move));
+        assertEquals(ChessPiece.PieceType.QUEEN, MoveBuffer.promotion(move));
+        assertTrue(MoveBuffer.isCapture(move));
+        assertEquals(ChessMove.of(52, 60, ChessPiece.PieceType.QUEEN), MoveBuffer.toChessMove(move));
+    }
+}
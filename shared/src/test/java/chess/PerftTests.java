@@ -0,0 +1,48 @@
+package chess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft - Reference Positions")
+    void referencePositions() {
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            ChessGame game = Perft.fromFen(position.fen());
+            // depth 5 takes a while, the command-line runner covers it
+            int depth = Math.min(position.nodes().length, 4);
+            for (int d = 1; d <= depth; d++) {
+                assertEquals(position.nodes()[d - 1], Perft.perft(game, d),
+                        position.name() + " depth " + d);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Perft - Leaves Game Unchanged")
+    void leavesGameUnchanged() {
+        ChessGame game = Perft.fromFen(Perft.START_FEN);
+        ChessGame before = Perft.fromFen(Perft.START_FEN);
+        long key = game.getZobristKey();
+        Perft.perft(game, 3);
+        assertEquals(before, game);
+        assertEquals(key, game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Perft - Matches validMoves")
+    void matchesValidMoves() {
+        ChessGame game = Perft.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        int count = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = game.getBoard().getPiece(square);
+            if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                count += game.validMoves(ChessPosition.ofSquare(square)).size();
+            }
+        }
+        assertEquals(Perft.perft(game, 1), count);
+    }
+}
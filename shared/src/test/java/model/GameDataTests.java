@@ -0,0 +1,51 @@
+package model;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameDataTests {
+
+    private static void move(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null));
+    }
+
+    @Test
+    @DisplayName("Result From Position - Checkmate")
+    void checkmate() throws InvalidMoveException {
+        // fool's mate
+        ChessGame game = new ChessGame();
+        move(game, 2, 6, 3, 6);
+        move(game, 7, 5, 5, 5);
+        move(game, 2, 7, 4, 7);
+        move(game, 8, 4, 4, 8);
+
+        GameData result = new GameData(1, "white", "black", "game", game).withResultFromPosition();
+        assertEquals(GameStatus.CHECKMATE, result.status());
+        assertEquals(ChessGame.TeamColor.BLACK, result.winner());
+        assertTrue(result.isOver());
+    }
+
+    @Test
+    @DisplayName("Result From Position - Game Goes On")
+    void stillActive() {
+        GameData game = new GameData(1, "white", "black", "game", new ChessGame());
+        assertSame(game, game.withResultFromPosition());
+        assertFalse(game.isOver());
+    }
+
+    @Test
+    @DisplayName("Result - Kept When Players Change")
+    void resultKeptWithPlayers() {
+        GameData game = new GameData(1, "white", "black", "game", new ChessGame())
+                .withResult(GameStatus.RESIGNED, ChessGame.TeamColor.WHITE);
+        GameData left = game.withPlayers(null, "black");
+        assertEquals(GameStatus.RESIGNED, left.status());
+        assertEquals(ChessGame.TeamColor.WHITE, left.winner());
+    }
+}
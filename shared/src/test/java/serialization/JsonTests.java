@@ -0,0 +1,129 @@
+package serialization;
+
+import chess.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.*;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTests {
+
+    // written by Gson from the ChessGame of the original 8x8 array board, after 1. e4 d5 2. exd5
+    private static final String LEGACY_GAME = """
+            {"board":{"squares":[
+            [{"color":"WHITE","type":"ROOK"},{"color":"WHITE","type":"KNIGHT"},{"color":"WHITE","type":"BISHOP"},{"color":"WHITE","type":"QUEEN"},{"color":"WHITE","type":"KING"},{"color":"WHITE","type":"BISHOP"},{"color":"WHITE","type":"KNIGHT"},{"color":"WHITE","type":"ROOK"}],
+            [{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},null,{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"},{"color":"WHITE","type":"PAWN"}],
+            [null,null,null,null,null,null,null,null],
+            [null,null,null,null,null,null,null,null],
+            [null,null,null,{"color":"WHITE","type":"PAWN"},null,null,null,null],
+            [null,null,null,null,null,null,null,null],
+            [{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},null,{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"},{"color":"BLACK","type":"PAWN"}],
+            [{"color":"BLACK","type":"ROOK"},{"color":"BLACK","type":"KNIGHT"},{"color":"BLACK","type":"BISHOP"},{"color":"BLACK","type":"QUEEN"},{"color":"BLACK","type":"KING"},{"color":"BLACK","type":"BISHOP"},{"color":"BLACK","type":"KNIGHT"},{"color":"BLACK","type":"ROOK"}]
+            ]},"currentTurn":"BLACK"}""";
+
+    private static ChessGame playedGame() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        return game;
+    }
+
+    @Test
+    @DisplayName("Game - Reflective JSON Without The Occupancy")
+    void gameMatchesReflectiveJson() throws InvalidMoveException {
+        ChessGame game = playedGame();
+        String reflective = new Gson().toJson(game);
+        // occupancy is rebuilt from the pieces, so only the pieces are written
+        var expected = JsonParser.parseString(reflective).getAsJsonObject();
+        expected.getAsJsonObject("board").remove("colorOccupancy");
+        assertEquals(expected, JsonParser.parseString(Json.GSON.toJson(game)));
+
+        // payloads that still carry colorOccupancy read the same
+        ChessGame read = Json.GSON.fromJson(reflective, ChessGame.class);
+        assertEquals(game, read);
+        assertEquals(game.getZobristKey(), read.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Game - Reads The Legacy Squares Board")
+    void readsLegacySquares() throws InvalidMoveException {
+        ChessGame expected = playedGame();
+        expected.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+
+        ChessGame read = Json.GSON.fromJson(LEGACY_GAME, ChessGame.class);
+        assertEquals(expected, read);
+        assertEquals(ChessGame.TeamColor.BLACK, read.getTeamTurn());
+        assertEquals(31, Long.bitCount(read.getBoard().getOccupancy()));
+        assertEquals(expected.getZobristKey(), read.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Game - Rejects Bad Boards")
+    void rejectsBadBoards() {
+        // a white pawn and a black pawn both on a1
+        String overlapping = "{\"board\":{\"pieces\":[1,0,0,0,0,0,1,0,0,0,0,0]},\"currentTurn\":\"WHITE\"}";
+        assertThrows(JsonParseException.class, () -> Json.GSON.fromJson(overlapping, ChessGame.class));
+        assertThrows(JsonParseException.class,
+                () -> Json.GSON.fromJson("{\"currentTurn\":\"WHITE\"}", ChessGame.class));
+        String ninthRow = "{\"squares\":[[],[],[],[],[],[],[],[],[{\"color\":\"WHITE\",\"type\":\"KING\"}]]}";
+        assertThrows(JsonParseException.class, () -> Json.GSON.fromJson(ninthRow, ChessBoard.class));
+    }
+
+    @Test
+    @DisplayName("Move - Round Trip Reuses Shared Instances")
+    void moveRoundTrip() {
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        ChessMove read = Json.GSON.fromJson(Json.GSON.toJson(promotion), ChessMove.class);
+        assertEquals(promotion, read);
+        assertSame(ChessMove.of(promotion.getStartPosition(), promotion.getEndPosition(), ChessPiece.PieceType.QUEEN),
+                read);
+
+        ChessMove offBoard = new ChessMove(new ChessPosition(0, 1), new ChessPosition(9, 1), null);
+        assertEquals(offBoard, Json.GSON.fromJson(Json.GSON.toJson(offBoard), ChessMove.class));
+    }
+
+    @Test
+    @DisplayName("Commands - Decoded To The Right Class")
+    void commandsRoundTrip() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        String makeMove = Json.GSON.toJson(new MakeMoveCommand("token", 7, move));
+        UserGameCommand read = Json.GSON.fromJson(makeMove, UserGameCommand.class);
+        MakeMoveCommand readMove = assertInstanceOf(MakeMoveCommand.class, read);
+        assertEquals(move, readMove.getMove());
+        assertEquals("token", readMove.getAuthToken());
+
+        var connect = new UserGameCommand(UserGameCommand.CommandType.CONNECT, "token", 7, true);
+        UserGameCommand readConnect = Json.GSON.fromJson(Json.GSON.toJson(connect), UserGameCommand.class);
+        assertEquals(connect, readConnect);
+        assertTrue(readConnect.wantsMoveUpdates());
+    }
+
+    @Test
+    @DisplayName("Commands - Fields In Any Order")
+    void commandFieldOrder() {
+        String json = "{\"move\":{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":{\"row\":4,\"col\":5}}," +
+                "\"gameID\":3,\"commandType\":\"MAKE_MOVE\",\"authToken\":\"token\"}";
+        assertInstanceOf(MakeMoveCommand.class, Json.GSON.fromJson(json, UserGameCommand.class));
+    }
+
+    @Test
+    @DisplayName("Messages - Round Trip")
+    void messagesRoundTrip() throws InvalidMoveException {
+        ChessGame game = playedGame();
+        var load = (LoadGameMessage) Json.GSON.fromJson(Json.GSON.toJson(new LoadGameMessage(game, 2)), ServerMessage.class);
+        assertEquals(game, load.getGame());
+        assertEquals(Integer.valueOf(2), load.getSequence());
+
+        var error = (ErrorMessage) Json.GSON.fromJson(Json.GSON.toJson(new ErrorMessage("bad move")), ServerMessage.class);
+        assertEquals("Error: bad move", error.getErrorMessage());
+
+        var note = (NotificationMessage) Json.GSON.fromJson(
+                Json.GSON.toJson(new NotificationMessage("hello")), ServerMessage.class);
+        assertEquals("hello", note.getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+import serialization.Json;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMadeMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveMadeMessageTests {
+    private static final Gson GSON = Json.GSON;
+
+    @Test
+    @DisplayName("Move Made - Applying The Move To A Snapshot Matches The Server")
+    void applyMoveToSnapshot() throws InvalidMoveException {
+        ChessGame serverGame = new ChessGame();
+        String snapshot = GSON.toJson(new LoadGameMessage(serverGame, 0));
+        ChessGame clientGame = GSON.fromJson(snapshot, LoadGameMessage.class).getGame();
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        serverGame.makeMove(move);
+        String update = GSON.toJson(new MoveMadeMessage(move, 1, serverGame.getZobristKey()));
+
+        MoveMadeMessage received = GSON.fromJson(update, MoveMadeMessage.class);
+        clientGame.applyMove(received.getMove());
+        assertEquals(1, received.getSequence());
+        assertEquals(received.getPositionHash(), clientGame.getZobristKey());
+        assertEquals(serverGame, clientGame);
+    }
+
+    @Test
+    @DisplayName("Move Made - A Missed Move Changes The Hash")
+    void missedMoveDetected() throws InvalidMoveException {
+        ChessGame serverGame = new ChessGame();
+        ChessGame clientGame = GSON.fromJson(GSON.toJson(serverGame), ChessGame.class);
+
+        serverGame.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessMove second = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        serverGame.makeMove(second);
+
+        clientGame.applyMove(second);
+        assertNotEquals(serverGame.getZobristKey(), clientGame.getZobristKey());
+    }
+}